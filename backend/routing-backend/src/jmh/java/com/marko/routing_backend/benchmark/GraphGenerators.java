@@ -0,0 +1,149 @@
+package com.marko.routing_backend.benchmark;
+
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.NodeDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic graphs for benchmarks, built as the request DTOs the service receives. Every shape is
+ * seeded so a size and seed always give the same graph; routes run from node 0 to node n - 1.
+ */
+public final class GraphGenerators {
+    private static final double SIZE = 1000;
+
+    public enum Shape { GRID, GEOMETRIC, SCALE_FREE, PATH }
+
+    private GraphGenerators() {}
+
+    public static GraphOperationRequest generate(Shape shape, int n, long seed) {
+        return switch (shape) {
+            case GRID -> grid(n, seed);
+            case GEOMETRIC -> randomGeometric(n, seed);
+            case SCALE_FREE -> scaleFree(n, 2, seed);
+            case PATH -> path(n, seed);
+        };
+    }
+
+    // Row-major grid about sqrt(n) wide; costs are the unit distance stretched by up to 2x
+    public static GraphOperationRequest grid(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int width = (int) Math.ceil(Math.sqrt(n));
+        double step = SIZE / width;
+        List<NodeDto> nodes = new ArrayList<>(n);
+        List<EdgeDto> edges = new ArrayList<>(2 * n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new NodeDto(i, (i % width) * step, (i / width) * step, null));
+            if (i % width + 1 < width && i + 1 < n) {
+                edges.add(new EdgeDto(i, i + 1, step * (1 + random.nextDouble())));
+            }
+            if (i + width < n) {
+                edges.add(new EdgeDto(i, i + width, step * (1 + random.nextDouble())));
+            }
+        }
+        return request(nodes, edges);
+    }
+
+    // Uniform points joined when closer than a radius that keeps the graph connected with high
+    // probability (about 3 ln n expected neighbours); costs are the distances
+    public static GraphOperationRequest randomGeometric(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        double[] x = new double[n];
+        double[] y = new double[n];
+        List<NodeDto> nodes = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextDouble() * SIZE;
+            y[i] = random.nextDouble() * SIZE;
+            nodes.add(new NodeDto(i, x[i], y[i], null));
+        }
+        double radius = SIZE * Math.sqrt(3 * Math.log(Math.max(n, 2)) / (Math.PI * n));
+
+        // Bucket points into cells of one radius so only the 3x3 block around a cell is compared
+        int cells = Math.max(1, (int) (SIZE / radius));
+        int[] cellStart = new int[cells * cells + 1];
+        int[] cellOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = cell(x[i], cells) * cells + cell(y[i], cells);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cells * cells; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] fill = Arrays.copyOf(cellStart, cells * cells);
+        int[] members = new int[n];
+        for (int i = 0; i < n; i++) {
+            members[fill[cellOf[i]]++] = i;
+        }
+
+        List<EdgeDto> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            int cx = cellOf[i] / cells;
+            int cy = cellOf[i] % cells;
+            for (int ax = Math.max(0, cx - 1); ax <= Math.min(cells - 1, cx + 1); ax++) {
+                for (int ay = Math.max(0, cy - 1); ay <= Math.min(cells - 1, cy + 1); ay++) {
+                    int c = ax * cells + ay;
+                    for (int k = cellStart[c]; k < cellStart[c + 1]; k++) {
+                        int j = members[k];
+                        double distance = Math.hypot(x[i] - x[j], y[i] - y[j]);
+                        if (j > i && distance <= radius) {
+                            edges.add(new EdgeDto(i, j, distance));
+                        }
+                    }
+                }
+            }
+        }
+        return request(nodes, edges);
+    }
+
+    // Barabasi-Albert preferential attachment: each new node links to m earlier nodes picked in
+    // proportion to their degree, giving a few very high-degree hubs
+    public static GraphOperationRequest scaleFree(int n, int m, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<NodeDto> nodes = new ArrayList<>(n);
+        List<EdgeDto> edges = new ArrayList<>(m * n);
+        int[] endpoints = new int[2 * m * n];  // every node once per incident edge
+        int endpointCount = 0;
+        for (int i = 0; i < n; i++) {
+            nodes.add(new NodeDto(i, random.nextDouble() * SIZE, random.nextDouble() * SIZE, null));
+            int links = Math.min(i, m);
+            for (int l = 0; l < links; l++) {
+                int target = endpointCount == 0 ? 0 : endpoints[random.nextInt(endpointCount)];
+                edges.add(new EdgeDto(i, target, 1 + random.nextDouble() * 9));
+                endpoints[endpointCount++] = i;
+                endpoints[endpointCount++] = target;
+            }
+        }
+        return request(nodes, edges);
+    }
+
+    // A single chain, the worst case for search depth
+    public static GraphOperationRequest path(int n, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<NodeDto> nodes = new ArrayList<>(n);
+        List<EdgeDto> edges = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            nodes.add(new NodeDto(i, i * SIZE / n, 0, null));
+            if (i > 0) {
+                edges.add(new EdgeDto(i - 1, i, 1 + random.nextDouble() * 9));
+            }
+        }
+        return request(nodes, edges);
+    }
+
+    private static int cell(double coordinate, int cells) {
+        return Math.min(cells - 1, (int) (coordinate / SIZE * cells));
+    }
+
+    private static GraphOperationRequest request(List<NodeDto> nodes, List<EdgeDto> edges) {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(nodes);
+        request.setEdges(edges);
+        request.setStartNode(0);
+        request.setEndNode(nodes.size() - 1);
+        return request;
+    }
+}
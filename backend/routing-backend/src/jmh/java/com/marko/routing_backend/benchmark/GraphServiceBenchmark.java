@@ -0,0 +1,42 @@
+package com.marko.routing_backend.benchmark;
+
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.service.GraphService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Request checks that run before every inline simulation. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class GraphServiceBenchmark {
+
+    @Param({"GRID", "GEOMETRIC", "SCALE_FREE", "PATH"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int nodes;
+
+    private final GraphService graphService = new GraphService();
+    private GraphOperationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        request = GraphGenerators.generate(shape, nodes, 42);
+    }
+
+    @Benchmark
+    public boolean isConnected() {
+        return graphService.isConnected(request.getEdges(), request.getNodes().size());
+    }
+
+    @Benchmark
+    public GraphOperationRequest validateRequest() {
+        graphService.validateRequest(request);
+        return request;
+    }
+}
@@ -0,0 +1,66 @@
+package com.marko.routing_backend.benchmark;
+
+import com.marko.routing_backend.config.RoutingProperties;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.GraphOperationResponse;
+import com.marko.routing_backend.service.GraphService;
+import com.marko.routing_backend.service.RoutingMetrics;
+import com.marko.routing_backend.service.ShortestPathTreeCache;
+import com.marko.routing_backend.service.SimulationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end simulation cost on inline graphs: validation, graph build, search and trace
+ * recording. Steps go to a blackhole rather than a list, so allocation is what the trace
+ * produces, not what a caller would retain. Traced Bellman-Ford runs whole passes and is slow
+ * on the largest graphs; narrow the run with e.g. -p nodes=1000,10000.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class RoutingBenchmark {
+
+    @Param({"GRID", "GEOMETRIC", "SCALE_FREE", "PATH"})
+    private GraphGenerators.Shape shape;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int nodes;
+
+    // "full" snapshots every label per step and is quadratic; add it with -p trace=full on small graphs
+    @Param({"none", "delta"})
+    private String trace;
+
+    private SimulationService simulation;
+    private GraphOperationRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setMaxNodes(Integer.MAX_VALUE);
+        properties.setMaxEdges(Integer.MAX_VALUE);
+        properties.setTimeoutSeconds(0);
+        simulation = new SimulationService(new GraphService(), null, properties,
+            new ShortestPathTreeCache(new ConcurrentMapCacheManager(ShortestPathTreeCache.CACHE_NAME)),
+            new RoutingMetrics(new SimpleMeterRegistry()));
+        request = GraphGenerators.generate(shape, nodes, 42);
+        request.setTraceFormat(trace);
+    }
+
+    @Benchmark
+    public GraphOperationResponse dijkstra(Blackhole blackhole) {
+        return simulation.simulateDijkstra(request, blackhole::consume);
+    }
+
+    @Benchmark
+    public GraphOperationResponse bellmanFord(Blackhole blackhole) {
+        return simulation.simulateBellmanFord(request, blackhole::consume);
+    }
+}
@@ -0,0 +1,21 @@
+package com.marko.routing_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+// Work units are estimated arc relaxations, see AdmissionControl
+@Component
+@ConfigurationProperties(prefix = "routing.admission")
+@Data
+public class AdmissionProperties {
+    private boolean enabled = true;
+    private long budgetUnits = 1_000_000_000L;
+    // Requests estimated above cheap-units may only use this share of the budget, so the rest
+    // stays free for cheap queries
+    private double heavyShare = 0.75;
+    private long cheapUnits = 10_000_000L;
+    private int maxQueued = 100;
+    private long maxWaitMillis = 1_000;
+    private int retryAfterSeconds = 1;
+}
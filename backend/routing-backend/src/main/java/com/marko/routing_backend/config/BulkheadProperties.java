@@ -0,0 +1,26 @@
+package com.marko.routing_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "routing.bulkhead")
+@Data
+public class BulkheadProperties {
+    private boolean enabled = true;
+    private int threads = 0;  // 0 = one per core
+    private int queueCapacity = 64;
+    private int retryAfterSeconds = 1;
+    // Per-algorithm overrides of threads and queue-capacity, e.g. algorithms.bellman-ford.threads=2
+    private Map<String, Limits> algorithms = new HashMap<>();
+
+    @Data
+    public static class Limits {
+        private Integer threads;
+        private Integer queueCapacity;
+    }
+}
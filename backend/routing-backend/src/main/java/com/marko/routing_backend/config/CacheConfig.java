@@ -1,21 +1,52 @@
 package com.marko.routing_backend.config;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.marko.routing_backend.service.GraphRegistryService;
+import com.marko.routing_backend.service.RegisteredGraph;
+import com.marko.routing_backend.graph.ShortestPathTree;
+import com.marko.routing_backend.service.RouteCache;
+import com.marko.routing_backend.service.ShortestPathTreeCache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.List;
 
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager() {
-        return new ConcurrentMapCacheManager(
-            "savedGraphs",
-            "routeCalculations",
-            "validations"
-        );
+    public CacheManager cacheManager(RouteCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder().maximumSize(1_000).recordStats());
+        cacheManager.setCacheNames(List.of("validations"));
+
+        // Built graphs of registered ids; rebuilt from the database after eviction
+        cacheManager.registerCustomCache(GraphRegistryService.CACHE_NAME, Caffeine.newBuilder()
+            .maximumWeight(properties.getGraphMaxWeightBytes())
+            .weigher((Object key, Object value) -> (int) Math.min(Integer.MAX_VALUE, ((RegisteredGraph) value).estimatedBytes()))
+            .recordStats()
+            .build());
+
+        // Resumable Dijkstra trees per (graph, source), weighed at full size up front; idle trees
+        // expire with the route results so abandoned inline graphs are not kept alive
+        cacheManager.registerCustomCache(ShortestPathTreeCache.CACHE_NAME, Caffeine.newBuilder()
+            .maximumWeight(properties.getTreeMaxWeightBytes())
+            .weigher((Object key, Object value) -> (int) Math.min(Integer.MAX_VALUE, ((ShortestPathTree) value).estimatedBytes()))
+            .expireAfterAccess(properties.getExpireAfterWrite())
+            .recordStats()
+            .build());
+
+        // Route results vary from a few bytes to megabytes of trace, so bound them by weight
+        cacheManager.registerCustomCache(RouteCache.CACHE_NAME, Caffeine.newBuilder()
+            .maximumWeight(properties.getMaxWeightBytes())
+            .weigher((Object key, Object value) -> RouteCache.estimateBytes(value))
+            .expireAfterWrite(properties.getExpireAfterWrite())
+            .recordStats()
+            .build());
+        return cacheManager;
     }
-}
\ No newline at end of file
+}
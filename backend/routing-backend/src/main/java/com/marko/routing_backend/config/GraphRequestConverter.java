@@ -0,0 +1,213 @@
+package com.marko.routing_backend.config;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.marko.routing_backend.dto.EdgeColumnList;
+import com.marko.routing_backend.dto.InlineGraph;
+import com.marko.routing_backend.dto.NodeColumnList;
+import com.marko.routing_backend.exception.GraphValidationException;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Reads request bodies that carry a graph ({@link InlineGraph}) with a streaming parser, putting
+ * {@code nodes} and {@code edges} straight into primitive columns instead of one DTO per entry.
+ * Edge indices are checked against the node count as they are read (in one pass at the end when
+ * nodes come after edges); problems are recorded on the list and reported by the usual
+ * validation, so error responses are unchanged. The node and edge limits are enforced as entries
+ * arrive, so an oversized body is rejected without being buffered. All other fields are bound by
+ * Jackson as before.
+ * Spring Boot puts converter beans ahead of its own Jackson converter.
+ */
+@Component
+public class GraphRequestConverter extends AbstractHttpMessageConverter<InlineGraph> {
+    private final ObjectMapper objectMapper;
+    private final RoutingProperties properties;
+
+    public GraphRequestConverter(ObjectMapper objectMapper, RoutingProperties properties) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return InlineGraph.class.isAssignableFrom(clazz) && !clazz.isInterface();
+    }
+
+    @Override
+    public boolean canWrite(@NonNull Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    @NonNull
+    protected InlineGraph readInternal(@NonNull Class<? extends InlineGraph> clazz, @NonNull HttpInputMessage inputMessage)
+            throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputMessage.getBody())) {
+            return read(clazz, parser);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(@NonNull InlineGraph graph, @NonNull HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("Graph requests are read-only");
+    }
+
+    InlineGraph read(Class<? extends InlineGraph> clazz, JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw unexpected(parser, "an object");
+        }
+        ObjectNode fields = objectMapper.createObjectNode();
+        NodeColumnList nodes = null;
+        EdgeColumnList.Builder edges = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("nodes".equals(name)) {
+                nodes = value == JsonToken.VALUE_NULL ? null : readNodes(parser);
+            } else if ("edges".equals(name)) {
+                edges = value == JsonToken.VALUE_NULL ? null : readEdges(parser, nodes == null ? -1 : nodes.size());
+            } else {
+                fields.set(name, objectMapper.readTree(parser));
+            }
+        }
+
+        InlineGraph graph = objectMapper.treeToValue(fields, clazz);
+        graph.setNodes(nodes);
+        graph.setEdges(edges == null ? null : edges.build(nodes == null ? -1 : nodes.size()));
+        return graph;
+    }
+
+    private NodeColumnList readNodes(JsonParser parser) throws IOException {
+        expectArray(parser, "nodes");
+        int limit = properties.getMaxNodes();
+        NodeColumnList.Builder nodes = new NodeColumnList.Builder(limit);
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (nodes.size() == limit) {
+                throw new GraphValidationException("Graph has more than " + limit + " nodes; the limit is " + limit, "nodes");
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                nodes.addNull();
+                continue;
+            }
+            expectObject(parser, "node");
+            int id = 0;
+            double x = 0;
+            double y = 0;
+            String label = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+                    case "id" -> id = intValue(parser);
+                    case "x" -> x = doubleValue(parser);
+                    case "y" -> y = doubleValue(parser);
+                    case "label" -> label = value == JsonToken.VALUE_NULL ? null : parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            nodes.add(id, x, y, label);
+        }
+        return nodes.build();
+    }
+
+    private EdgeColumnList.Builder readEdges(JsonParser parser, int knownNodeCount) throws IOException {
+        expectArray(parser, "edges");
+        int limit = properties.getMaxEdges();
+        EdgeColumnList.Builder edges = new EdgeColumnList.Builder(knownNodeCount, limit);
+        for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.nextToken()) {
+            if (edges.size() == limit) {
+                throw new GraphValidationException("Graph has more than " + limit + " edges; the limit is " + limit, "edges");
+            }
+            if (token == JsonToken.VALUE_NULL) {
+                edges.addNull();
+                continue;
+            }
+            expectObject(parser, "edge");
+            int start = 0;
+            int end = 0;
+            double cost = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "start" -> start = intValue(parser);
+                    case "end" -> end = intValue(parser);
+                    case "cost" -> cost = doubleValue(parser);
+                    default -> parser.skipChildren();
+                }
+            }
+            edges.add(start, end, cost);
+        }
+        return edges;
+    }
+
+    // Same coercions Jackson applies to the DTO fields: numbers, numeric strings, null as zero
+    private static int intValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(scalarText(parser).trim());
+        } catch (NumberFormatException e) {
+            throw unexpected(parser, "an integer for '" + parser.currentName() + "'");
+        }
+    }
+
+    private static double doubleValue(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDoubleValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return 0;
+        }
+        try {
+            return Double.parseDouble(scalarText(parser).trim());
+        } catch (NumberFormatException e) {
+            throw unexpected(parser, "a number for '" + parser.currentName() + "'");
+        }
+    }
+
+    private static String scalarText(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw unexpected(parser, "a number for '" + parser.currentName() + "'");
+        }
+        return parser.getText();
+    }
+
+    private static JsonParseException unexpected(JsonParser parser, String expected) {
+        return new JsonParseException(parser, "Expected " + expected + " but found " + parser.currentToken());
+    }
+
+    private static void expectArray(JsonParser parser, String field) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw unexpected(parser, "an array for '" + field + "'");
+        }
+    }
+
+    private static void expectObject(JsonParser parser, String entry) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            throw unexpected(parser, "an object or null for each " + entry);
+        }
+    }
+}
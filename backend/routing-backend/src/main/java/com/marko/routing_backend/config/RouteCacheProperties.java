@@ -0,0 +1,17 @@
+package com.marko.routing_backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@ConfigurationProperties(prefix = "routing.cache")
+@Data
+public class RouteCacheProperties {
+    private long maxWeightBytes = 256L * 1024 * 1024;
+    private Duration expireAfterWrite = Duration.ofMinutes(10);
+    private long graphMaxWeightBytes = 512L * 1024 * 1024;
+    private long treeMaxWeightBytes = 256L * 1024 * 1024;
+}
@@ -1,5 +1,7 @@
 package com.marko.routing_backend.config;
 
+import com.marko.routing_backend.graph.BellmanFord;
+import com.marko.routing_backend.graph.NodeQueue;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
@@ -8,7 +10,17 @@ import org.springframework.stereotype.Component;
 @ConfigurationProperties(prefix = "routing.algorithm")
 @Data
 public class RoutingProperties {
-    private int maxNodes = 100;
-    private int maxEdges = 500;
+    private int maxNodes = 1_000_000;
+    private int maxEdges = 5_000_000;
     private int timeoutSeconds = 30;
+    private NodeQueue.Type heap = NodeQueue.Type.DARY;
+    private int heapArity = 4;
+    private BellmanFord.Mode bellmanFordMode = BellmanFord.Mode.QUEUE;
+    private int parallelEdgeThreshold = 100_000;
+    private boolean bidirectionalThreads = false;
+    private boolean compressSavedGraphs = true;
+    private int altLandmarks = 8;
+    private long altMaxTableBytes = 268_435_456;
+    private int matrixThreads = 0;
+    private long matrixMaxCells = 25_000_000;
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.marko.routing_backend.controller;
+
+import com.marko.routing_backend.dto.EdgePatchRequest;
+import com.marko.routing_backend.dto.SavedGraphDto;
+import com.marko.routing_backend.service.AdmissionControl;
+import com.marko.routing_backend.service.AlgorithmBulkheads;
+import com.marko.routing_backend.service.GraphRegistryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Graph registry: register once, then route with {"graphId": ..., "startNode": ..., "endNode": ...}
+@RestController
+@RequestMapping("/api/graphs")
+@CrossOrigin(origins = "*")
+public class GraphController {
+
+    private static final String HIERARCHY_BUILD = "ch-build";
+    private static final String ALT_BUILD = "alt-build";
+    private static final String EDGE_PATCH = "graph-patch";
+
+    private final GraphRegistryService graphRegistry;
+    private final AdmissionControl admission;
+    private final AlgorithmBulkheads bulkheads;
+
+    public GraphController(GraphRegistryService graphRegistry, AdmissionControl admission, AlgorithmBulkheads bulkheads) {
+        this.graphRegistry = graphRegistry;
+        this.admission = admission;
+        this.bulkheads = bulkheads;
+    }
+
+    @PostMapping
+    public ResponseEntity<SavedGraphDto> registerGraph(@RequestBody SavedGraphDto request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(graphRegistry.register(request));
+    }
+
+    @GetMapping
+    public ResponseEntity<List<SavedGraphDto>> listGraphs() {
+        return ResponseEntity.ok(graphRegistry.list());
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SavedGraphDto> getGraph(@PathVariable long id) {
+        return ResponseEntity.ok(graphRegistry.get(id));
+    }
+
+    // Changes edge costs or adds/removes edges; reports how much of the cached trees had to be recomputed.
+    // Repair cost grows with the number of cached trees, so it is admitted and bulkheaded like a build
+    @PatchMapping("/{id}/edges")
+    public ResponseEntity<Map<String, Object>> patchEdges(@PathVariable long id, @RequestBody EdgePatchRequest request) {
+        return ResponseEntity.ok(admission.call(EDGE_PATCH, admission.estimatePatch(id),
+            () -> bulkheads.call(EDGE_PATCH, () -> graphRegistry.patchEdges(id, request))));
+    }
+
+    // Builds the contraction hierarchy used by /api/routing/ch/route; admitted and run on its own
+    // bulkhead like the routing algorithms
+    @PostMapping("/{id}/hierarchy")
+    public ResponseEntity<Map<String, Object>> buildHierarchy(@PathVariable long id) {
+        return ResponseEntity.ok(admission.call(HIERARCHY_BUILD, admission.estimateHierarchyBuild(id),
+            () -> bulkheads.call(HIERARCHY_BUILD, () -> graphRegistry.buildHierarchy(id))));
+    }
+
+    // Builds the landmark tables used by /api/routing/alt; admitted and bulkheaded like hierarchy builds
+    @PostMapping("/{id}/landmarks")
+    public ResponseEntity<Map<String, Object>> buildLandmarks(@PathVariable long id) {
+        return ResponseEntity.ok(admission.call(ALT_BUILD, admission.estimateLandmarkBuild(id),
+            () -> bulkheads.call(ALT_BUILD, () -> graphRegistry.buildLandmarks(id))));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteGraph(@PathVariable long id) {
+        graphRegistry.delete(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -1,11 +1,23 @@
 package com.marko.routing_backend.controller;
 
 import com.marko.routing_backend.dto.*;
+import com.marko.routing_backend.exception.AdmissionRejectedException;
+import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.exception.ResourceNotFoundException;
+import com.marko.routing_backend.graph.Components;
+import com.marko.routing_backend.graph.CsrGraph;
 import com.marko.routing_backend.service.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api")
@@ -14,24 +26,41 @@ public class RoutingController {
 
     private final GraphService graphService;
     private final SimulationService simulationService;
+    private final StepStreamWriter stepStreamWriter;
+    private final RouteCache routeCache;
+    private final MatrixService matrixService;
+    private final AlgorithmBulkheads bulkheads;
+    private final RoutingMetrics metrics;
+    private final AdmissionControl admission;
     private final Map<String, GraphOperationRequest> scenarios = new HashMap<>();
 
-    public RoutingController(GraphService graphService, SimulationService simulationService) {
+    public RoutingController(GraphService graphService, SimulationService simulationService,
+                             StepStreamWriter stepStreamWriter, RouteCache routeCache, MatrixService matrixService,
+                             AlgorithmBulkheads bulkheads, RoutingMetrics metrics, AdmissionControl admission) {
         this.graphService = graphService;
         this.simulationService = simulationService;
+        this.stepStreamWriter = stepStreamWriter;
+        this.routeCache = routeCache;
+        this.matrixService = matrixService;
+        this.bulkheads = bulkheads;
+        this.metrics = metrics;
+        this.admission = admission;
     }
 
     @PostMapping("/graph/validate")
     public ResponseEntity<?> validateGraph(@RequestBody GraphOperationRequest request) {
         try {
-            graphService.validateRequest(request);
-            boolean isConnected = graphService.isConnected(request.getEdges(), request.getNodes().size());
-            boolean hasNegativeEdges = graphService.hasNegativeEdges(request.getEdges());
+            int nodeCount = request.getNodes() == null ? 0 : request.getNodes().size();
+            metrics.phase("validate", RoutingMetrics.VALIDATE, nodeCount).record(() -> graphService.validateRequest(request));
+            CsrGraph graph = metrics.phase("validate", RoutingMetrics.BUILD, nodeCount).record(() -> CsrGraph.fromRequest(request));
+            Components components = metrics.phase("validate", RoutingMetrics.CONNECTIVITY, nodeCount)
+                .record(() -> graphService.components(graph));
 
             return ResponseEntity.ok(Map.of(
                 "valid", true,
-                "connected", isConnected,
-                "hasNegativeEdges", hasNegativeEdges
+                "connected", components.count() <= 1,
+                "componentCount", components.count(),
+                "hasNegativeEdges", graph.hasNegativeEdges()
             ));
         } catch (com.marko.routing_backend.exception.GraphValidationException e) {
             return ResponseEntity.badRequest().body(Map.of(
@@ -56,7 +85,8 @@ public class RoutingController {
         }
         try {
             request.setOperation("dijkstra");
-            GraphOperationResponse response = simulationService.simulateDijkstra(request);
+            GraphOperationResponse response = routeCache.get("dijkstra", request,
+                () -> execute("dijkstra", request, true, () -> simulationService.simulateDijkstra(request)));
             if (response == null) {
                 return ResponseEntity.status(500).body(GraphOperationResponse.error("Internal server error"));
             }
@@ -76,6 +106,84 @@ public class RoutingController {
         }
     }
 
+    @PostMapping("/routing/astar")
+    public ResponseEntity<GraphOperationResponse> runAStar(@RequestBody GraphOperationRequest request) {
+        if (request.getStartNode() == null || request.getEndNode() == null) {
+            return ResponseEntity.badRequest().body(
+                GraphOperationResponse.error("Start node and end node are required")
+            );
+        }
+        try {
+            request.setOperation("astar");
+            GraphOperationResponse response = routeCache.get("astar", request,
+                () -> execute("astar", request, true, () -> simulationService.simulateAStar(request)));
+            if (response == null) {
+                return ResponseEntity.status(500).body(GraphOperationResponse.error("Internal server error"));
+            }
+            // Same status mapping as Dijkstra: negative edges are bad requests, no path is a valid answer
+            if (!response.isSuccess() && response.getError() != null && response.getError().toLowerCase().contains("negative")) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                GraphOperationResponse.error(e.getMessage())
+            );
+        }
+    }
+
+    // A* with landmark bounds instead of coordinates; registered graphs only
+    @PostMapping("/routing/alt")
+    public ResponseEntity<GraphOperationResponse> runAlt(@RequestBody GraphOperationRequest request) {
+        if (request.getStartNode() == null || request.getEndNode() == null) {
+            return ResponseEntity.badRequest().body(
+                GraphOperationResponse.error("Start node and end node are required")
+            );
+        }
+        try {
+            request.setOperation("alt");
+            GraphOperationResponse response = routeCache.get("alt", request,
+                () -> execute("alt", request, true, () -> simulationService.simulateAlt(request)));
+            if (response == null) {
+                return ResponseEntity.status(500).body(GraphOperationResponse.error("Internal server error"));
+            }
+            // Same status mapping as Dijkstra: negative edges are bad requests, no path is a valid answer
+            if (!response.isSuccess() && response.getError() != null && response.getError().toLowerCase().contains("negative")) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                GraphOperationResponse.error(e.getMessage())
+            );
+        }
+    }
+
+    @PostMapping("/routing/bidirectional")
+    public ResponseEntity<GraphOperationResponse> runBidirectional(@RequestBody GraphOperationRequest request) {
+        if (request.getStartNode() == null || request.getEndNode() == null) {
+            return ResponseEntity.badRequest().body(
+                GraphOperationResponse.error("Start node and end node are required")
+            );
+        }
+        try {
+            request.setOperation("bidirectional");
+            GraphOperationResponse response = routeCache.get("bidirectional", request,
+                () -> execute("bidirectional", request, true, () -> simulationService.simulateBidirectional(request)));
+            if (response == null) {
+                return ResponseEntity.status(500).body(GraphOperationResponse.error("Internal server error"));
+            }
+            if (!response.isSuccess() && response.getError() != null && response.getError().toLowerCase().contains("negative")) {
+                return ResponseEntity.badRequest().body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(
+                GraphOperationResponse.error(e.getMessage())
+            );
+        }
+    }
+
     @PostMapping("/routing/bellman-ford")
     public ResponseEntity<GraphOperationResponse> runBellmanFord(@RequestBody GraphOperationRequest request) {
         if (request.getStartNode() == null || request.getEndNode() == null) {
@@ -85,11 +193,13 @@ public class RoutingController {
         }
         try {
             request.setOperation("bellman-ford");
-            GraphOperationResponse response = simulationService.simulateBellmanFord(request);
+            GraphOperationResponse response = routeCache.get("bellman-ford", request,
+                () -> execute("bellman-ford", request, true, () -> simulationService.simulateBellmanFord(request)));
             if (response == null) {
                 return ResponseEntity.status(500).body(GraphOperationResponse.error("Internal server error"));
             }
-            if (!response.isSuccess()) {
+            // Negative cycles are bad requests; a search stopped at its deadline returns its partial result like the others
+            if (!response.isSuccess() && !Boolean.TRUE.equals(response.getPartial())) {
                 return ResponseEntity.badRequest().body(response);
             }
             return ResponseEntity.ok(response);
@@ -100,6 +210,121 @@ public class RoutingController {
         }
     }
 
+    @PostMapping("/routing/{algorithm}/route")
+    public ResponseEntity<DijkstraResult> route(@PathVariable String algorithm, @RequestBody GraphOperationRequest request) {
+        if (request.getStartNode() == null || request.getEndNode() == null) {
+            throw new GraphValidationException("Start node and end node are required");
+        }
+        request.setOperation(algorithm);
+        switch (algorithm) {
+            case "dijkstra":
+                return ResponseEntity.ok(routeCache.get("dijkstra/route", request,
+                    () -> execute("dijkstra", request, false, () -> simulationService.routeDijkstra(request))));
+            case "astar":
+                return ResponseEntity.ok(routeCache.get("astar/route", request,
+                    () -> execute("astar", request, false, () -> simulationService.routeAStar(request))));
+            case "alt":
+                return ResponseEntity.ok(routeCache.get("alt/route", request,
+                    () -> execute("alt", request, false, () -> simulationService.routeAlt(request))));
+            case "bidirectional":
+                return ResponseEntity.ok(routeCache.get("bidirectional/route", request,
+                    () -> execute("bidirectional", request, false, () -> simulationService.routeBidirectional(request))));
+            case "bellman-ford":
+                return ResponseEntity.ok(routeCache.get("bellman-ford/route", request,
+                    () -> execute("bellman-ford", request, false, () -> simulationService.routeBellmanFord(request))));
+            case "ch":
+                return ResponseEntity.ok(routeCache.get("ch/route", request,
+                    () -> execute("ch", request, false, () -> simulationService.routeContractionHierarchy(request))));
+            default:
+                return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Sources x targets costs in one request; see MatrixResponse for the encoding
+    @PostMapping("/routing/matrix")
+    public ResponseEntity<MatrixResponse> matrix(@RequestBody MatrixRequest request) {
+        return ResponseEntity.ok(admission.call("matrix", admission.estimate(request),
+            () -> bulkheads.call("matrix", () -> matrixService.compute(request))));
+    }
+
+    @PostMapping(value = "/routing/{algorithm}/stream", produces = {"application/x-ndjson", MediaType.TEXT_EVENT_STREAM_VALUE})
+    public ResponseEntity<StreamingResponseBody> streamSimulation(@PathVariable String algorithm,
+                                                                  @RequestBody GraphOperationRequest request,
+                                                                  @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        BiFunction<GraphOperationRequest, Consumer<SimulationStep>, GraphOperationResponse> simulation;
+        switch (algorithm) {
+            case "dijkstra":
+                simulation = simulationService::simulateDijkstra;
+                break;
+            case "astar":
+                simulation = simulationService::simulateAStar;
+                break;
+            case "alt":
+                simulation = simulationService::simulateAlt;
+                break;
+            case "bidirectional":
+                simulation = simulationService::simulateBidirectional;
+                break;
+            case "bellman-ford":
+                simulation = simulationService::simulateBellmanFord;
+                break;
+            default:
+                return ResponseEntity.notFound().build();
+        }
+        if (request.getStartNode() == null || request.getEndNode() == null) {
+            return streamError(GraphOperationResponse.error("Start node and end node are required"));
+        }
+        // Validate up front so bad input still gets a 400 rather than a failed stream
+        int nodeCount;
+        try {
+            nodeCount = simulationService.checkRequest(request);
+            if (algorithm.equals("alt")) {
+                simulationService.landmarks(request);
+            }
+            TraceFormat.from(request.getTraceFormat());
+        } catch (GraphValidationException | IllegalArgumentException e) {
+            return streamError(GraphOperationResponse.error(e.getMessage()));
+        } catch (ResourceNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(stepStreamWriter.error(GraphOperationResponse.error(e.getMessage())));
+        }
+
+        request.setOperation(algorithm);
+        boolean sse = accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+        // The units stay held until the last event is written
+        AdmissionControl.Permit permit;
+        try {
+            permit = admission.acquire(algorithm, admission.estimate(algorithm, request, true));
+        } catch (AdmissionRejectedException e) {
+            return ResponseEntity.status(e.isQueueFull() ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(stepStreamWriter.error(GraphOperationResponse.error(e.getMessage())));
+        }
+        StreamingResponseBody stream = stepStreamWriter.stream(request, sse, algorithm, nodeCount, simulation);
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                stream.writeTo(out);
+            }
+        };
+        return ResponseEntity.ok()
+            .contentType(sse ? MediaType.TEXT_EVENT_STREAM : StepStreamWriter.APPLICATION_NDJSON)
+            .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+            .body(body);
+    }
+
+    // Admission first, so shed requests never take a bulkhead slot
+    private <T> T execute(String algorithm, GraphOperationRequest request, boolean traced, Supplier<T> work) {
+        return admission.call(algorithm, admission.estimate(algorithm, request, traced), () -> bulkheads.call(algorithm, work));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamError(GraphOperationResponse error) {
+        return ResponseEntity.badRequest()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(stepStreamWriter.error(error));
+    }
+
     @PostMapping("/scenarios")
     public ResponseEntity<Map<String, String>> saveScenario(@RequestBody GraphOperationRequest request) {
         String name = request.getScenarioName();
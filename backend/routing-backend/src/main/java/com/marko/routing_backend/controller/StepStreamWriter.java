@@ -0,0 +1,101 @@
+package com.marko.routing_backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.GraphOperationResponse;
+import com.marko.routing_backend.dto.SimulationStep;
+import com.marko.routing_backend.dto.SimulationStreamEvent;
+import com.marko.routing_backend.service.RoutingMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Writes simulation steps to the response as the algorithm produces them, either as
+ * newline-delimited JSON or as Server-Sent Events, followed by one summary event. Writes block
+ * on a slow client, which in turn pauses the algorithm, so nothing is buffered beyond one step.
+ */
+@Slf4j
+@Component
+public class StepStreamWriter {
+
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int FLUSH_EVERY = 32;
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final RoutingMetrics metrics;
+
+    public StepStreamWriter(ObjectMapper objectMapper, RoutingMetrics metrics) {
+        this.objectMapper = objectMapper;
+        this.metrics = metrics;
+    }
+
+    public StreamingResponseBody stream(GraphOperationRequest request, boolean sse, String algorithmName, int nodeCount,
+            BiFunction<GraphOperationRequest, Consumer<SimulationStep>, GraphOperationResponse> algorithm) {
+        return out -> {
+            int[] written = {0};
+            // Only JSON encoding is timed as serialization; writes can block on the client
+            long[] encodeNanos = {0};
+            long[] traceBytes = {0};
+            Consumer<SimulationStep> sink = step -> {
+                try {
+                    SimulationStreamEvent event = SimulationStreamEvent.step(written[0], step);
+                    long encodeStart = System.nanoTime();
+                    byte[] json = objectMapper.writeValueAsBytes(event);
+                    encodeNanos[0] += System.nanoTime() - encodeStart;
+                    traceBytes[0] += json.length;
+                    writeEvent(out, sse, event.getType(), json);
+                    // Flush the first frame immediately, then in small batches
+                    if (written[0]++ % FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            GraphOperationResponse summary;
+            try {
+                summary = algorithm.apply(request, sink);
+            } catch (UncheckedIOException e) {
+                log.debug("Client went away after {} streamed steps", written[0]);
+                throw e.getCause();
+            } catch (RuntimeException e) {
+                summary = GraphOperationResponse.error(e.getMessage());
+            }
+            metrics.phase(algorithmName, RoutingMetrics.SERIALIZE, nodeCount).record(encodeNanos[0], TimeUnit.NANOSECONDS);
+            metrics.traceBytes(algorithmName, nodeCount, traceBytes[0]);
+            SimulationStreamEvent event = SimulationStreamEvent.summary(written[0], summary);
+            writeEvent(out, sse, event.getType(), objectMapper.writeValueAsBytes(event));
+            out.flush();
+        };
+    }
+
+    // Errors detected before streaming starts are sent as a plain JSON body
+    public StreamingResponseBody error(GraphOperationResponse response) {
+        return out -> out.write(objectMapper.writeValueAsBytes(response));
+    }
+
+    private static void writeEvent(OutputStream out, boolean sse, String type, byte[] json) throws IOException {
+        if (sse) {
+            out.write(("event: " + type + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(json);
+            out.write(NEWLINE);
+            out.write(NEWLINE);
+        } else {
+            out.write(json);
+            out.write(NEWLINE);
+        }
+    }
+}
@@ -1,20 +1,30 @@
 package com.marko.routing_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 import java.util.Map;
 
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class DijkstraResult {
     private List<Integer> path;
     private double totalCost;
     private Map<Integer, Double> distances;
+    private List<Integer> edgeIndices;
 
     public DijkstraResult(List<Integer> path, double totalCost, Map<Integer, Double> distances) {
+        this(path, totalCost, distances, null);
+    }
+
+    public DijkstraResult(List<Integer> path, double totalCost, Map<Integer, Double> distances, List<Integer> edgeIndices) {
         this.path = path;
         this.totalCost = totalCost;
         this.distances = distances;
+        this.edgeIndices = edgeIndices;
     }
 
     public List<Integer> getPath() { return path; }
     public double getTotalCost() { return totalCost; }
     public Map<Integer, Double> getDistances() { return distances; }
+    public List<Integer> getEdgeIndices() { return edgeIndices; }
 }
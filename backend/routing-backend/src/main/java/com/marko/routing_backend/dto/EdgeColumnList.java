@@ -0,0 +1,135 @@
+package com.marko.routing_backend.dto;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Request edges parsed straight into primitive columns. It reads as a {@code List<EdgeDto>} for
+ * code that walks DTOs, creating each one on access; hot paths read the columns instead. The
+ * node-index check ran while parsing, so validation only looks at {@link #problem()}.
+ * The columns are shared, not copied, and must not be modified.
+ */
+public final class EdgeColumnList extends AbstractList<EdgeDto> implements RandomAccess {
+    private final int[] start;
+    private final int[] end;
+    private final double[] cost;
+    private final BitSet nulls;  // null entries of the JSON array; null if there were none
+    private final int checkedNodeCount;
+    private final String problem;
+
+    private EdgeColumnList(int[] start, int[] end, double[] cost, BitSet nulls, int checkedNodeCount, String problem) {
+        this.start = start;
+        this.end = end;
+        this.cost = cost;
+        this.nulls = nulls;
+        this.checkedNodeCount = checkedNodeCount;
+        this.problem = problem;
+    }
+
+    @Override
+    public EdgeDto get(int index) {
+        Objects.checkIndex(index, start.length);
+        return isNull(index) ? null : new EdgeDto(start[index], end[index], cost[index]);
+    }
+
+    @Override
+    public int size() { return start.length; }
+
+    public boolean isNull(int index) { return nulls != null && nulls.get(index); }
+    public int start(int index) { return start[index]; }
+    public int end(int index) { return end[index]; }
+    public double cost(int index) { return cost[index]; }
+
+    public int[] startColumn() { return start; }
+    public int[] endColumn() { return end; }
+    public double[] costColumn() { return cost; }
+
+    // Node count the edges were checked against while parsing, -1 if the body had no nodes
+    public int checkedNodeCount() { return checkedNodeCount; }
+    // First validation error in edge order, as GraphService would report it; null if none
+    public String problem() { return problem; }
+
+    public static final class Builder {
+        private final int knownNodeCount;  // nodes parsed before the edges, else -1
+        private final int maxSize;  // columns never grow past this; the reader rejects more entries
+        private int[] start = new int[0];
+        private int[] end = new int[0];
+        private double[] cost = new double[0];
+        private BitSet nulls;
+        private int size;
+        private String problem;
+
+        public Builder(int knownNodeCount, int maxSize) {
+            this.knownNodeCount = knownNodeCount;
+            this.maxSize = maxSize;
+        }
+
+        public int size() { return size; }
+
+        public void add(int from, int to, double weight) {
+            ensureCapacity();
+            start[size] = from;
+            end[size] = to;
+            cost[size] = weight;
+            if (problem == null && knownNodeCount >= 0) {
+                problem = check(from, to, knownNodeCount);
+            }
+            size++;
+        }
+
+        public void addNull() {
+            ensureCapacity();
+            if (nulls == null) {
+                nulls = new BitSet();
+            }
+            nulls.set(size++);
+            if (problem == null) {
+                problem = NULL_EDGE;
+            }
+        }
+
+        public EdgeColumnList build(int nodeCount) {
+            if (knownNodeCount < 0 && nodeCount >= 0) {
+                // Nodes came after the edges; one pass over the columns in edge order
+                for (int i = 0; i < size && problem == null; i++) {
+                    problem = nulls != null && nulls.get(i) ? NULL_EDGE : check(start[i], end[i], nodeCount);
+                }
+            }
+            // One column at a time, so at most one spare copy is alive; exact columns are kept as they are
+            start = trim(start);
+            end = trim(end);
+            cost = trim(cost);
+            return new EdgeColumnList(start, end, cost, nulls, nodeCount, problem);
+        }
+
+        private int[] trim(int[] column) {
+            return column.length == size ? column : Arrays.copyOf(column, size);
+        }
+
+        private double[] trim(double[] column) {
+            return column.length == size ? column : Arrays.copyOf(column, size);
+        }
+
+        // Grows by half, capped at maxSize, so spare capacity stays below a third of the columns
+        private void ensureCapacity() {
+            if (size == start.length) {
+                int capacity = (int) Math.min(Math.max(size + (size >> 1), 16L), Math.max(maxSize, size + 1L));
+                start = Arrays.copyOf(start, capacity);
+                end = Arrays.copyOf(end, capacity);
+                cost = Arrays.copyOf(cost, capacity);
+            }
+        }
+
+        private static String check(int from, int to, int nodeCount) {
+            if (from < 0 || from >= nodeCount || to < 0 || to >= nodeCount) {
+                return "Edge references invalid node index: start=" + from + ", end=" + to;
+            }
+            return null;
+        }
+    }
+
+    private static final String NULL_EDGE = "Edge entry cannot be null";
+}
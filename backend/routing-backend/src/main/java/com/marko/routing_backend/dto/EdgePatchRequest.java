@@ -0,0 +1,37 @@
+package com.marko.routing_backend.dto;
+
+import java.util.List;
+
+// Edge changes for a registered graph, applied as: cost updates, then removals, then additions
+public class EdgePatchRequest {
+    private List<CostUpdate> update;
+    private List<Integer> remove;
+    private List<EdgeDto> add;
+
+    public List<CostUpdate> getUpdate() { return update; }
+    public void setUpdate(List<CostUpdate> update) { this.update = update; }
+
+    public List<Integer> getRemove() { return remove; }
+    public void setRemove(List<Integer> remove) { this.remove = remove; }
+
+    public List<EdgeDto> getAdd() { return add; }
+    public void setAdd(List<EdgeDto> add) { this.add = add; }
+
+    public static class CostUpdate {
+        private int index;
+        private double cost;
+
+        public CostUpdate() {}
+
+        public CostUpdate(int index, double cost) {
+            this.index = index;
+            this.cost = cost;
+        }
+
+        public int getIndex() { return index; }
+        public void setIndex(int index) { this.index = index; }
+
+        public double getCost() { return cost; }
+        public void setCost(double cost) { this.cost = cost; }
+    }
+}
@@ -1,14 +1,24 @@
 package com.marko.routing_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.List;
 
-public class GraphOperationRequest {
+public class GraphOperationRequest implements InlineGraph {
+    private Long graphId; // registered graph to route on instead of inline nodes/edges
     private List<NodeDto> nodes;
     private List<EdgeDto> edges;
     private String operation; // "validate", "dijkstra", "bellman-ford"
     private Integer startNode;
     private Integer endNode;
     private String scenarioName;
+    private String traceFormat; // "full" (default) or "delta"
+    private Integer keyframeInterval; // delta traces only: full snapshot every N steps
+    @JsonIgnore
+    private String graphFingerprint; // content hash of the inline graph, set once it has been computed
+
+    public Long getGraphId() { return graphId; }
+    public void setGraphId(Long graphId) { this.graphId = graphId; }
 
     public List<NodeDto> getNodes() { return nodes; }
     public void setNodes(List<NodeDto> nodes) { this.nodes = nodes; }
@@ -27,4 +37,15 @@ public class GraphOperationRequest {
 
     public String getScenarioName() { return scenarioName; }
     public void setScenarioName(String scenarioName) { this.scenarioName = scenarioName; }
+
+    public String getTraceFormat() { return traceFormat; }
+    public void setTraceFormat(String traceFormat) { this.traceFormat = traceFormat; }
+
+    public Integer getKeyframeInterval() { return keyframeInterval; }
+    public void setKeyframeInterval(Integer keyframeInterval) { this.keyframeInterval = keyframeInterval; }
+
+    @JsonIgnore
+    public String getGraphFingerprint() { return graphFingerprint; }
+    @JsonIgnore
+    public void setGraphFingerprint(String graphFingerprint) { this.graphFingerprint = graphFingerprint; }
 }
\ No newline at end of file
@@ -10,6 +10,11 @@ public class GraphOperationResponse {
     private List<Integer> shortestPath;
     private Map<Integer, Double> finalDistances;
     private double totalCost;
+    private String traceFormat;
+    private List<Integer> negativeCycle;      // closed node walk, first node repeated at the end
+    private List<Integer> negativeCycleEdges; // edge index for each step of the walk
+    private Integer settledNodes;             // nodes taken off the queue (Dijkstra / A*)
+    private Boolean partial;                  // stopped by the time limit or cancellation; steps and distances so far
 
     public GraphOperationResponse() {}
 
@@ -36,6 +41,21 @@ public class GraphOperationResponse {
     public double getTotalCost() { return totalCost; }
     public void setTotalCost(double totalCost) { this.totalCost = totalCost; }
 
+    public String getTraceFormat() { return traceFormat; }
+    public void setTraceFormat(String traceFormat) { this.traceFormat = traceFormat; }
+
+    public List<Integer> getNegativeCycle() { return negativeCycle; }
+    public void setNegativeCycle(List<Integer> negativeCycle) { this.negativeCycle = negativeCycle; }
+
+    public List<Integer> getNegativeCycleEdges() { return negativeCycleEdges; }
+    public void setNegativeCycleEdges(List<Integer> negativeCycleEdges) { this.negativeCycleEdges = negativeCycleEdges; }
+
+    public Integer getSettledNodes() { return settledNodes; }
+    public void setSettledNodes(Integer settledNodes) { this.settledNodes = settledNodes; }
+
+    public Boolean getPartial() { return partial; }
+    public void setPartial(Boolean partial) { this.partial = partial; }
+
     public static GraphOperationResponse error(String message) {
         return new GraphOperationResponse(false, message);
     }
@@ -0,0 +1,12 @@
+package com.marko.routing_backend.dto;
+
+import java.util.List;
+
+// Request bodies that can carry a graph as nodes/edges; these are read by GraphRequestConverter
+public interface InlineGraph {
+    List<NodeDto> getNodes();
+    void setNodes(List<NodeDto> nodes);
+
+    List<EdgeDto> getEdges();
+    void setEdges(List<EdgeDto> edges);
+}
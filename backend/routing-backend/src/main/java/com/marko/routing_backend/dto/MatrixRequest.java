@@ -0,0 +1,27 @@
+package com.marko.routing_backend.dto;
+
+import java.util.List;
+
+// Many-to-many costs on a registered graph (graphId) or an inline one (nodes/edges)
+public class MatrixRequest implements InlineGraph {
+    private Long graphId;
+    private List<NodeDto> nodes;
+    private List<EdgeDto> edges;
+    private List<Integer> sources;
+    private List<Integer> targets;
+
+    public Long getGraphId() { return graphId; }
+    public void setGraphId(Long graphId) { this.graphId = graphId; }
+
+    public List<NodeDto> getNodes() { return nodes; }
+    public void setNodes(List<NodeDto> nodes) { this.nodes = nodes; }
+
+    public List<EdgeDto> getEdges() { return edges; }
+    public void setEdges(List<EdgeDto> edges) { this.edges = edges; }
+
+    public List<Integer> getSources() { return sources; }
+    public void setSources(List<Integer> sources) { this.sources = sources; }
+
+    public List<Integer> getTargets() { return targets; }
+    public void setTargets(List<Integer> targets) { this.targets = targets; }
+}
@@ -0,0 +1,25 @@
+package com.marko.routing_backend.dto;
+
+// Row-major sources x targets costs as base64 little-endian float64; unreachable pairs are +Infinity
+public class MatrixResponse {
+    public static final String ENCODING = "float64-le-base64";
+
+    private int rows;
+    private int columns;
+    private String encoding = ENCODING;
+    private String data;
+    private long computeMillis;
+
+    public MatrixResponse(int rows, int columns, String data, long computeMillis) {
+        this.rows = rows;
+        this.columns = columns;
+        this.data = data;
+        this.computeMillis = computeMillis;
+    }
+
+    public int getRows() { return rows; }
+    public int getColumns() { return columns; }
+    public String getEncoding() { return encoding; }
+    public String getData() { return data; }
+    public long getComputeMillis() { return computeMillis; }
+}
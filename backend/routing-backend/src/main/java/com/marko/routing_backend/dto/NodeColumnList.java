@@ -0,0 +1,108 @@
+package com.marko.routing_backend.dto;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Request nodes parsed straight into primitive columns; the node counterpart of
+ * {@link EdgeColumnList}. Labels are only kept when some node has one.
+ */
+public final class NodeColumnList extends AbstractList<NodeDto> implements RandomAccess {
+    private final int[] ids;
+    private final double[] x;
+    private final double[] y;
+    private final String[] labels;
+    private final BitSet nulls;
+
+    private NodeColumnList(int[] ids, double[] x, double[] y, String[] labels, BitSet nulls) {
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.labels = labels;
+        this.nulls = nulls;
+    }
+
+    @Override
+    public NodeDto get(int index) {
+        Objects.checkIndex(index, ids.length);
+        return isNull(index) ? null : new NodeDto(ids[index], x[index], y[index], labels == null ? null : labels[index]);
+    }
+
+    @Override
+    public int size() { return ids.length; }
+
+    public boolean isNull(int index) { return nulls != null && nulls.get(index); }
+    public double x(int index) { return x[index]; }
+    public double y(int index) { return y[index]; }
+
+    // Null entries read as (0, 0), as they do when graphs are built from DTOs
+    public double[] xColumn() { return x; }
+    public double[] yColumn() { return y; }
+
+    public static final class Builder {
+        private final int maxSize;
+        private int[] ids = new int[0];
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private String[] labels;
+        private BitSet nulls;
+        private int size;
+
+        public Builder(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int size() { return size; }
+
+        public void add(int id, double nodeX, double nodeY, String label) {
+            ensureCapacity();
+            ids[size] = id;
+            x[size] = nodeX;
+            y[size] = nodeY;
+            if (label != null) {
+                if (labels == null) {
+                    labels = new String[ids.length];
+                }
+                labels[size] = label;
+            }
+            size++;
+        }
+
+        public void addNull() {
+            ensureCapacity();
+            if (nulls == null) {
+                nulls = new BitSet();
+            }
+            nulls.set(size++);
+        }
+
+        public NodeColumnList build() {
+            ids = ids.length == size ? ids : Arrays.copyOf(ids, size);
+            x = trim(x);
+            y = trim(y);
+            if (labels != null && labels.length != size) {
+                labels = Arrays.copyOf(labels, size);
+            }
+            return new NodeColumnList(ids, x, y, labels, nulls);
+        }
+
+        private double[] trim(double[] column) {
+            return column.length == size ? column : Arrays.copyOf(column, size);
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                int capacity = (int) Math.min(Math.max(size + (size >> 1), 16L), Math.max(maxSize, size + 1L));
+                ids = Arrays.copyOf(ids, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                if (labels != null) {
+                    labels = Arrays.copyOf(labels, capacity);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.marko.routing_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Registered graph; listings leave nodes and edges out
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SavedGraphDto implements InlineGraph {
+    private Long id;
+    private String name;
+    private String description;
+    private List<NodeDto> nodes;
+    private List<EdgeDto> edges;
+    private Integer nodeCount;
+    private Integer edgeCount;
+    private Long version;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+
+    public List<NodeDto> getNodes() { return nodes; }
+    public void setNodes(List<NodeDto> nodes) { this.nodes = nodes; }
+
+    public List<EdgeDto> getEdges() { return edges; }
+    public void setEdges(List<EdgeDto> edges) { this.edges = edges; }
+
+    public Integer getNodeCount() { return nodeCount; }
+    public void setNodeCount(Integer nodeCount) { this.nodeCount = nodeCount; }
+
+    public Integer getEdgeCount() { return edgeCount; }
+    public void setEdgeCount(Integer edgeCount) { this.edgeCount = edgeCount; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,12 +1,20 @@
 package com.marko.routing_backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.Map;
 
+// In delta traces distances/predecessors hold only changed nodes and visitedEdgeIndices only the
+// edges visited since the previous step; keyframe steps carry complete maps and every edge
+// visited so far, so a client can start from any keyframe.
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class SimulationStep {
     private int currentNode;
     private int[] visitedEdgeIndices;
     private Map<Integer, Double> distances;
     private Map<Integer, Integer> predecessors;
+    private Boolean keyframe;
+    private String side; // bidirectional search only: "forward" or "backward"
 
     public int getCurrentNode() { return currentNode; }
     public void setCurrentNode(int currentNode) { this.currentNode = currentNode; }
@@ -19,4 +27,10 @@ public class SimulationStep {
 
     public Map<Integer, Integer> getPredecessors() { return predecessors; }
     public void setPredecessors(Map<Integer, Integer> predecessors) { this.predecessors = predecessors; }
+
+    public Boolean getKeyframe() { return keyframe; }
+    public void setKeyframe(Boolean keyframe) { this.keyframe = keyframe; }
+
+    public String getSide() { return side; }
+    public void setSide(String side) { this.side = side; }
 }
\ No newline at end of file
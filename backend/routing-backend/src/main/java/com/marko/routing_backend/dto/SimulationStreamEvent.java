@@ -0,0 +1,33 @@
+package com.marko.routing_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// One line of a streamed simulation: a "step" event per step, then a single "summary" event
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SimulationStreamEvent {
+    private final String type;
+    private final int index;
+    private final SimulationStep step;
+    private final GraphOperationResponse result;
+
+    private SimulationStreamEvent(String type, int index, SimulationStep step, GraphOperationResponse result) {
+        this.type = type;
+        this.index = index;
+        this.step = step;
+        this.result = result;
+    }
+
+    public static SimulationStreamEvent step(int index, SimulationStep step) {
+        return new SimulationStreamEvent("step", index, step, null);
+    }
+
+    // For the summary, index is the number of steps that were streamed
+    public static SimulationStreamEvent summary(int stepCount, GraphOperationResponse result) {
+        return new SimulationStreamEvent("summary", stepCount, null, result);
+    }
+
+    public String getType() { return type; }
+    public int getIndex() { return index; }
+    public SimulationStep getStep() { return step; }
+    public GraphOperationResponse getResult() { return result; }
+}
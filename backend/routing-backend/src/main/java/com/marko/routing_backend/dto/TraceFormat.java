@@ -0,0 +1,24 @@
+package com.marko.routing_backend.dto;
+
+import java.util.Locale;
+
+public enum TraceFormat {
+    FULL,   // every step carries complete distance/predecessor maps and all edges visited so far
+    DELTA,  // steps carry only what changed since the previous step, plus periodic keyframes
+    NONE;   // no steps are recorded at all; only the final result is returned
+
+    public String value() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static TraceFormat from(String value) {
+        if (value == null || value.isBlank()) {
+            return FULL;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown trace format: " + value);
+        }
+    }
+}
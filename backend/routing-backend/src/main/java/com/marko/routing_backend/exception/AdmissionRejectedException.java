@@ -0,0 +1,16 @@
+package com.marko.routing_backend.exception;
+
+// The work budget stayed exhausted: queueFull means shed on arrival (429), otherwise the wait timed out (503)
+public class AdmissionRejectedException extends RuntimeException {
+    private final boolean queueFull;
+    private final int retryAfterSeconds;
+
+    public AdmissionRejectedException(String message, boolean queueFull, int retryAfterSeconds) {
+        super(message);
+        this.queueFull = queueFull;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public boolean isQueueFull() { return queueFull; }
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+}
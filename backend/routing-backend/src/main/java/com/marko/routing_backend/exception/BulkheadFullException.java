@@ -0,0 +1,16 @@
+package com.marko.routing_backend.exception;
+
+// An algorithm's executor and queue are both full; the client should retry later
+public class BulkheadFullException extends RuntimeException {
+    private final String bulkhead;
+    private final int retryAfterSeconds;
+
+    public BulkheadFullException(String bulkhead, int retryAfterSeconds) {
+        super("Too many concurrent " + bulkhead + " requests; retry in " + retryAfterSeconds + "s");
+        this.bulkhead = bulkhead;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getBulkhead() { return bulkhead; }
+    public int getRetryAfterSeconds() { return retryAfterSeconds; }
+}
@@ -0,0 +1,9 @@
+package com.marko.routing_backend.exception;
+
+// A search hit routing.algorithm.timeout-seconds or was cancelled before it produced a result
+public class SearchTimeoutException extends RuntimeException {
+
+    public SearchTimeoutException(String message) {
+        super(message);
+    }
+}
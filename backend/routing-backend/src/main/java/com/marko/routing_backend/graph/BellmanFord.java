@@ -0,0 +1,278 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Result-only Bellman-Ford on a {@link CsrGraph}, without step recording. All modes stop as soon
+ * as the labels stop changing instead of always running |V|-1 passes.
+ */
+public final class BellmanFord {
+
+    public enum Mode {
+        PASSES,    // edge-ordered passes over the original edge list
+        QUEUE,     // SPFA: only nodes whose label changed are rescanned
+        PARALLEL   // Jacobi-style passes with node ranges relaxed on a ForkJoinPool
+    }
+
+    private static final int PARALLEL_CHUNK = 4096;
+    // Edge relaxations (PASSES) or node scans (QUEUE) between two polls of the stop signal
+    private static final int STOP_INTERVAL = 1024;
+
+    private BellmanFord() {}
+
+    public static Result run(CsrGraph graph, int source, Mode mode, ForkJoinPool pool) {
+        return run(graph, source, mode, pool, () -> false);
+    }
+
+    // stop is polled every STOP_INTERVAL edges or node scans, and once per node range of a parallel
+    // pass, so it should answer from the clock directly; see Result.isStopped()
+    public static Result run(CsrGraph graph, int source, Mode mode, ForkJoinPool pool, BooleanSupplier stop) {
+        int n = graph.nodeCount();
+        Result result = new Result(n);
+        result.dist[source] = 0;
+        switch (mode) {
+            case PASSES:
+                runPasses(graph, result, stop);
+                break;
+            case QUEUE:
+                runQueue(graph, source, result, stop);
+                break;
+            case PARALLEL:
+                runParallel(graph, result, pool, stop);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown Bellman-Ford mode: " + mode);
+        }
+        return result;
+    }
+
+    private static void runPasses(CsrGraph graph, Result r, BooleanSupplier stop) {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        double[] dist = r.dist;
+        // Pass n only happens if pass n-1 still changed something, which means a negative cycle
+        for (int pass = 1; pass <= n; pass++) {
+            int changed = -1;
+            for (int edge = 0; edge < m; edge++) {
+                if (edge % STOP_INTERVAL == 0 && stop.getAsBoolean()) {
+                    // Labels relaxed so far in this pass are still valid upper bounds
+                    r.relaxedArcs += 2L * edge;
+                    r.stopped = true;
+                    return;
+                }
+                int u = graph.edgeStart(edge);
+                int v = graph.edgeEnd(edge);
+                double cost = graph.edgeCost(edge);
+                if (dist[u] + cost < dist[v]) {
+                    r.relax(v, u, edge, dist[u] + cost);
+                    changed = v;
+                }
+                if (dist[v] + cost < dist[u]) {
+                    r.relax(u, v, edge, dist[v] + cost);
+                    changed = u;
+                }
+            }
+            r.passes = pass;
+            r.relaxedArcs += 2L * m;
+            if (changed == -1) {
+                return;
+            }
+            if (pass == n) {
+                r.cycleNode = changed;
+            }
+        }
+    }
+
+    private static void runQueue(CsrGraph graph, int source, Result r, BooleanSupplier stop) {
+        int n = graph.nodeCount();
+        double[] dist = r.dist;
+        // Edges on the current path to each node; reaching n edges implies a negative cycle
+        int[] hops = new int[n];
+        boolean[] queued = new boolean[n];
+        int[] ring = new int[n];
+        int head = 0;
+        int size = 1;
+        ring[0] = source;
+        queued[source] = true;
+        while (size > 0) {
+            if (r.passes % STOP_INTERVAL == 0 && stop.getAsBoolean()) {
+                r.stopped = true;
+                return;
+            }
+            int u = ring[head];
+            head = head + 1 == n ? 0 : head + 1;
+            size--;
+            queued[u] = false;
+            r.passes++;
+            r.relaxedArcs += graph.endArc(u) - graph.firstArc(u);
+
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                double alt = dist[u] + graph.arcWeight(a);
+                if (alt < dist[v]) {
+                    r.relax(v, u, graph.arcEdge(a), alt);
+                    hops[v] = hops[u] + 1;
+                    if (hops[v] >= n) {
+                        r.cycleNode = v;
+                        return;
+                    }
+                    if (!queued[v]) {
+                        queued[v] = true;
+                        int tail = head + size;
+                        ring[tail >= n ? tail - n : tail] = v;
+                        size++;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void runParallel(CsrGraph graph, Result r, ForkJoinPool pool, BooleanSupplier stop) {
+        int n = graph.nodeCount();
+        double[] next = new double[n];
+        int[] nextPrev = new int[n];
+        int[] nextPrevEdge = new int[n];
+        AtomicInteger changed = new AtomicInteger();
+        AtomicBoolean halted = new AtomicBoolean();
+
+        for (int pass = 1; pass <= n; pass++) {
+            changed.set(-1);
+            pool.invoke(new RelaxRange(graph, r.dist, r.prev, r.prevEdge, next, nextPrev, nextPrevEdge, changed,
+                stop, halted, 0, n));
+            if (halted.get()) {
+                // The next arrays are only partly written; keep the labels of the last full pass
+                r.stopped = true;
+                return;
+            }
+            System.arraycopy(next, 0, r.dist, 0, n);
+            System.arraycopy(nextPrev, 0, r.prev, 0, n);
+            System.arraycopy(nextPrevEdge, 0, r.prevEdge, 0, n);
+            r.passes = pass;
+            r.relaxedArcs += graph.arcCount();
+            if (changed.get() == -1) {
+                return;
+            }
+            if (pass == n) {
+                r.cycleNode = changed.get();
+            }
+        }
+    }
+
+    // Pull-based relaxation: every node reads its neighbours' labels from the previous pass and
+    // writes only its own slot of the next arrays, so ranges can run without synchronisation.
+    // Each leaf range polls the stop signal first and skips its work once the pass is halted.
+    private static final class RelaxRange extends RecursiveAction {
+        private final CsrGraph graph;
+        private final double[] dist;
+        private final int[] prev;
+        private final int[] prevEdge;
+        private final double[] next;
+        private final int[] nextPrev;
+        private final int[] nextPrevEdge;
+        private final AtomicInteger changed;
+        private final BooleanSupplier stop;
+        private final AtomicBoolean halted;
+        private final int from;
+        private final int to;
+
+        RelaxRange(CsrGraph graph, double[] dist, int[] prev, int[] prevEdge, double[] next, int[] nextPrev,
+                   int[] nextPrevEdge, AtomicInteger changed, BooleanSupplier stop, AtomicBoolean halted, int from, int to) {
+            this.graph = graph;
+            this.dist = dist;
+            this.prev = prev;
+            this.prevEdge = prevEdge;
+            this.next = next;
+            this.nextPrev = nextPrev;
+            this.nextPrevEdge = nextPrevEdge;
+            this.changed = changed;
+            this.stop = stop;
+            this.halted = halted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PARALLEL_CHUNK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(
+                    new RelaxRange(graph, dist, prev, prevEdge, next, nextPrev, nextPrevEdge, changed, stop, halted, from, mid),
+                    new RelaxRange(graph, dist, prev, prevEdge, next, nextPrev, nextPrevEdge, changed, stop, halted, mid, to)
+                );
+                return;
+            }
+            if (halted.get() || stop.getAsBoolean()) {
+                halted.set(true);
+                return;
+            }
+            int any = -1;
+            for (int v = from; v < to; v++) {
+                double best = dist[v];
+                int bestPrev = prev[v];
+                int bestEdge = prevEdge[v];
+                for (int a = graph.firstArc(v); a < graph.endArc(v); a++) {
+                    double alt = dist[graph.arcTarget(a)] + graph.arcWeight(a);
+                    if (alt < best) {
+                        best = alt;
+                        bestPrev = graph.arcTarget(a);
+                        bestEdge = graph.arcEdge(a);
+                    }
+                }
+                if (best < dist[v]) {
+                    any = v;
+                }
+                next[v] = best;
+                nextPrev[v] = bestPrev;
+                nextPrevEdge[v] = bestEdge;
+            }
+            if (any != -1) {
+                changed.set(any);
+            }
+        }
+    }
+
+    public static final class Result {
+        private final double[] dist;
+        private final int[] prev;
+        private final int[] prevEdge;
+        private int cycleNode = -1;  // node relaxed after the pass budget ran out
+        private int passes;
+        private long relaxedArcs;
+        private boolean stopped;
+
+        private Result(int n) {
+            this.dist = new double[n];
+            this.prev = new int[n];
+            this.prevEdge = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(prev, -1);
+            Arrays.fill(prevEdge, -1);
+        }
+
+        private void relax(int node, int from, int edge, double value) {
+            dist[node] = value;
+            prev[node] = from;
+            prevEdge[node] = edge;
+        }
+
+        public double[] dist() { return dist; }
+        public int[] prev() { return prev; }
+        public int[] prevEdge() { return prevEdge; }
+        public boolean hasNegativeCycle() { return cycleNode != -1; }
+        // The stop signal fired; labels are upper bounds from the work done so far
+        public boolean isStopped() { return stopped; }
+
+        public NegativeCycle negativeCycle() {
+            return cycleNode == -1 ? null : NegativeCycle.fromPredecessors(prev, prevEdge, cycleNode);
+        }
+        // Number of passes (PASSES/PARALLEL) or node scans (QUEUE) performed
+        public int passes() { return passes; }
+        // Arcs examined, counting both directions of an edge in edge-ordered passes
+        public long relaxedArcs() { return relaxedArcs; }
+    }
+}
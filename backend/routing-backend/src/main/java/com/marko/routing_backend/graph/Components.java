@@ -0,0 +1,73 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+
+/**
+ * Connected components of a {@link CsrGraph}, computed with a primitive union-find (path halving
+ * plus union by rank) over the edge list. Component ids are dense, 0 .. count() - 1, numbered in
+ * order of each component's lowest node.
+ */
+public final class Components {
+    private final int[] componentOf;
+    private final int[] sizes;
+
+    private Components(int[] componentOf, int[] sizes) {
+        this.componentOf = componentOf;
+        this.sizes = sizes;
+    }
+
+    public static Components of(CsrGraph graph) {
+        int n = graph.nodeCount();
+        int[] parent = new int[n];
+        byte[] rank = new byte[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+        }
+
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int a = find(parent, graph.edgeStart(edge));
+            int b = find(parent, graph.edgeEnd(edge));
+            if (a == b) {
+                continue;
+            }
+            if (rank[a] < rank[b]) {
+                parent[a] = b;
+            } else if (rank[a] > rank[b]) {
+                parent[b] = a;
+            } else {
+                parent[b] = a;
+                rank[a]++;
+            }
+        }
+
+        // Give each root a dense id the first time one of its nodes is seen
+        int[] componentOf = new int[n];
+        Arrays.fill(componentOf, -1);
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            int root = find(parent, i);
+            if (componentOf[root] == -1) {
+                componentOf[root] = count++;
+            }
+            componentOf[i] = componentOf[root];
+        }
+        int[] sizes = new int[count];
+        for (int i = 0; i < n; i++) {
+            sizes[componentOf[i]]++;
+        }
+        return new Components(componentOf, sizes);
+    }
+
+    private static int find(int[] parent, int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    public int count() { return sizes.length; }
+    public int componentOf(int node) { return componentOf[node]; }
+    public int size(int component) { return sizes[component]; }
+    public boolean connected(int a, int b) { return componentOf[a] == componentOf[b]; }
+}
@@ -0,0 +1,601 @@
+package com.marko.routing_backend.graph;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Contraction hierarchy over a {@link CsrGraph} with non-negative costs. Nodes are contracted in
+ * edge-difference order; whenever removing a node would lengthen a shortest path between two of
+ * its neighbours, a shortcut edge carrying the combined cost is added. Queries then run Dijkstra
+ * from both ends over upward arcs only (towards higher-ranked nodes), which settles a few hundred
+ * nodes even on very large graphs.
+ *
+ * <p>Edge ids below {@link CsrGraph#edgeCount()} are input edges; shortcut k has id
+ * edgeCount + k and stands for its two child edges via its middle node, so a route unpacks
+ * recursively into input edge indices.
+ */
+public final class ContractionHierarchy {
+    public static final int MAGIC = 0x48434752;  // "RGCH" read little-endian
+    public static final byte VERSION = 1;
+
+    // Witness searches give up after this many settled nodes and keep the shortcut instead; the
+    // cheaper bound is used when a contraction is only simulated to rank a node
+    private static final int WITNESS_SETTLE_LIMIT = 100;
+    private static final int SIMULATION_SETTLE_LIMIT = 20;
+    // Simulating a node this well connected costs more than it tells; assume every pair needs a shortcut
+    private static final int SIMULATION_DEGREE_LIMIT = 16;
+
+    private final CsrGraph graph;
+    private final int[] rank;
+
+    private final int[] shortcutA;
+    private final int[] shortcutB;
+    private final int[] shortcutVia;
+    private final int[] shortcutChildA;  // edge a - via
+    private final int[] shortcutChildB;  // edge via - b
+    private final double[] shortcutCost;
+
+    // Arcs from each node to its higher-ranked neighbours
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final double[] upWeights;
+    private final int[] upEdges;
+
+    private ContractionHierarchy(CsrGraph graph, int[] rank, int[] shortcutA, int[] shortcutB, int[] shortcutVia,
+                                 int[] shortcutChildA, int[] shortcutChildB, double[] shortcutCost) {
+        this.graph = graph;
+        this.rank = rank;
+        this.shortcutA = shortcutA;
+        this.shortcutB = shortcutB;
+        this.shortcutVia = shortcutVia;
+        this.shortcutChildA = shortcutChildA;
+        this.shortcutChildB = shortcutChildB;
+        this.shortcutCost = shortcutCost;
+
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        int[] degree = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                if (rank[graph.arcTarget(a)] > rank[u]) {
+                    degree[u]++;
+                }
+            }
+        }
+        for (int k = 0; k < shortcutA.length; k++) {
+            degree[lower(shortcutA[k], shortcutB[k])]++;
+        }
+
+        upOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            upOffsets[u + 1] = upOffsets[u] + degree[u];
+        }
+        int arcs = upOffsets[n];
+        upTargets = new int[arcs];
+        upWeights = new double[arcs];
+        upEdges = new int[arcs];
+        int[] cursor = Arrays.copyOf(upOffsets, n);
+        for (int u = 0; u < n; u++) {
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                if (rank[v] > rank[u]) {
+                    int slot = cursor[u]++;
+                    upTargets[slot] = v;
+                    upWeights[slot] = graph.arcWeight(a);
+                    upEdges[slot] = graph.arcEdge(a);
+                }
+            }
+        }
+        for (int k = 0; k < shortcutA.length; k++) {
+            int from = lower(shortcutA[k], shortcutB[k]);
+            int slot = cursor[from]++;
+            upTargets[slot] = from == shortcutA[k] ? shortcutB[k] : shortcutA[k];
+            upWeights[slot] = shortcutCost[k];
+            upEdges[slot] = m + k;
+        }
+    }
+
+    private int lower(int a, int b) {
+        return rank[a] < rank[b] ? a : b;
+    }
+
+    // pool only runs the initial priority pass; the contraction itself stays on the calling thread
+    public static ContractionHierarchy build(CsrGraph graph, ForkJoinPool pool) {
+        if (graph.hasNegativeEdges()) {
+            throw new IllegalArgumentException("Contraction hierarchies require non-negative edge costs");
+        }
+        return new Builder(graph).run(pool);
+    }
+
+    public int shortcutCount() { return shortcutA.length; }
+    public int rank(int node) { return rank[node]; }
+
+    public long estimatedBytes() {
+        return 64 + 4L * rank.length + 28L * shortcutA.length + 4L * upOffsets.length + 16L * upTargets.length;
+    }
+
+    /** Shortest route from source to target, or null if the target is unreachable. */
+    public Route route(int source, int target) {
+        if (source == target) {
+            return new Route(0, new int[]{source}, new int[0], 0);
+        }
+        SparseLabels forward = new SparseLabels(64);
+        SparseLabels backward = new SparseLabels(64);
+        LazyMinHeap forwardQueue = new LazyMinHeap(64);
+        LazyMinHeap backwardQueue = new LazyMinHeap(64);
+        forward.set(source, 0, -1, -1);
+        forwardQueue.push(0, source);
+        backward.set(target, 0, -1, -1);
+        backwardQueue.push(0, target);
+
+        double mu = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settled = 0;
+        while (!forwardQueue.isEmpty() || !backwardQueue.isEmpty()) {
+            boolean isForward = backwardQueue.isEmpty()
+                || (!forwardQueue.isEmpty() && forwardQueue.peekKey() <= backwardQueue.peekKey());
+            LazyMinHeap queue = isForward ? forwardQueue : backwardQueue;
+            SparseLabels own = isForward ? forward : backward;
+            SparseLabels other = isForward ? backward : forward;
+
+            // A side is finished once nothing it could still settle beats the best meeting
+            double d = queue.peekKey();
+            if (d >= mu) {
+                queue.clear();
+                continue;
+            }
+            int u = queue.poll();
+            if (d > own.dist(u)) {
+                continue;
+            }
+            settled++;
+            double through = d + other.dist(u);
+            if (through < mu) {
+                mu = through;
+                meeting = u;
+            }
+            if (stalled(u, d, own)) {
+                continue;
+            }
+            for (int a = upOffsets[u]; a < upOffsets[u + 1]; a++) {
+                int v = upTargets[a];
+                double alt = d + upWeights[a];
+                if (alt < own.dist(v)) {
+                    own.set(v, alt, u, upEdges[a]);
+                    queue.push(alt, v);
+                }
+            }
+        }
+        if (meeting == -1) {
+            return null;
+        }
+
+        // Hierarchy edges from source up to the meeting node, then down to the target
+        int upHops = 0;
+        for (int at = meeting; at != source; at = forward.prevNode(at)) {
+            upHops++;
+        }
+        int downHops = 0;
+        for (int at = meeting; at != target; at = backward.prevNode(at)) {
+            downHops++;
+        }
+        int[] edges = new int[upHops + downHops];
+        int[] from = new int[upHops + downHops];
+        int i = upHops;
+        for (int at = meeting; at != source; at = forward.prevNode(at)) {
+            i--;
+            edges[i] = forward.prevEdge(at);
+            from[i] = forward.prevNode(at);
+        }
+        i = upHops;
+        for (int at = meeting; at != target; at = backward.prevNode(at)) {
+            edges[i] = backward.prevEdge(at);
+            from[i] = at;
+            i++;
+        }
+        return unpack(source, mu, edges, from, settled);
+    }
+
+    // Stall-on-demand: a higher-ranked neighbour already reached more cheaply proves d is not a
+    // shortest distance, so u need not be expanded (it may still be a meeting candidate above)
+    private boolean stalled(int u, double d, SparseLabels labels) {
+        for (int a = upOffsets[u]; a < upOffsets[u + 1]; a++) {
+            if (labels.dist(upTargets[a]) + upWeights[a] < d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Expands shortcuts depth-first into input edges, keeping the direction of travel
+    private Route unpack(int source, double cost, int[] edges, int[] from, int settled) {
+        int[] pathEdges = new int[16];
+        int count = 0;
+        int[] stackEdge = new int[16];
+        int[] stackFrom = new int[16];
+        int m = graph.edgeCount();
+        for (int h = 0; h < edges.length; h++) {
+            int top = 0;
+            stackEdge[top] = edges[h];
+            stackFrom[top] = from[h];
+            top++;
+            while (top > 0) {
+                top--;
+                int e = stackEdge[top];
+                int f = stackFrom[top];
+                if (e < m) {
+                    if (count == pathEdges.length) {
+                        pathEdges = Arrays.copyOf(pathEdges, count * 2);
+                    }
+                    pathEdges[count++] = e;
+                    continue;
+                }
+                if (top + 2 > stackEdge.length) {
+                    stackEdge = Arrays.copyOf(stackEdge, stackEdge.length * 2);
+                    stackFrom = Arrays.copyOf(stackFrom, stackFrom.length * 2);
+                }
+                int k = e - m;
+                int via = shortcutVia[k];
+                // Push the second half first so the half starting at f is unpacked first
+                if (f == shortcutA[k]) {
+                    stackEdge[top] = shortcutChildB[k];
+                    stackFrom[top++] = via;
+                    stackEdge[top] = shortcutChildA[k];
+                    stackFrom[top++] = f;
+                } else {
+                    stackEdge[top] = shortcutChildA[k];
+                    stackFrom[top++] = via;
+                    stackEdge[top] = shortcutChildB[k];
+                    stackFrom[top++] = f;
+                }
+            }
+        }
+
+        int[] nodes = new int[count + 1];
+        nodes[0] = source;
+        for (int i = 0; i < count; i++) {
+            int e = pathEdges[i];
+            nodes[i + 1] = graph.edgeStart(e) == nodes[i] ? graph.edgeEnd(e) : graph.edgeStart(e);
+        }
+        return new Route(cost, nodes, Arrays.copyOf(pathEdges, count), settled);
+    }
+
+    public static final class Route {
+        private final double cost;
+        private final int[] nodes;
+        private final int[] edges;
+        private final int settled;
+
+        private Route(double cost, int[] nodes, int[] edges, int settled) {
+            this.cost = cost;
+            this.nodes = nodes;
+            this.edges = edges;
+            this.settled = settled;
+        }
+
+        public double cost() { return cost; }
+        public int[] nodes() { return nodes; }
+        // Input edge index of every step of the route
+        public int[] edges() { return edges; }
+        public int settled() { return settled; }
+    }
+
+    // Layout: magic, version, 3 reserved bytes, nodeCount, edgeCount, shortcutCount, rank[n],
+    // then per-shortcut columns a, b, via, childA, childB (ints) and cost (doubles), little-endian.
+    public byte[] encode() {
+        int s = shortcutA.length;
+        ByteBuffer out = ByteBuffer.allocate(20 + 4 * rank.length + 28 * s).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0);
+        out.putInt(rank.length).putInt(graph.edgeCount()).putInt(s);
+        for (int[] column : new int[][]{rank, shortcutA, shortcutB, shortcutVia, shortcutChildA, shortcutChildB}) {
+            out.asIntBuffer().put(column);
+            out.position(out.position() + 4 * column.length);
+        }
+        out.asDoubleBuffer().put(shortcutCost);
+        return out.array();
+    }
+
+    public static ContractionHierarchy decode(CsrGraph graph, byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a contraction hierarchy");
+            }
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported contraction hierarchy version: " + version);
+            }
+            in.get();
+            in.getShort();
+            int n = in.getInt();
+            int m = in.getInt();
+            int s = in.getInt();
+            if (n != graph.nodeCount() || m != graph.edgeCount()) {
+                throw new IllegalArgumentException("Contraction hierarchy was built for a different graph");
+            }
+            if (s < 0 || in.remaining() != 4L * n + 28L * s) {
+                throw new IllegalArgumentException("Truncated contraction hierarchy");
+            }
+            int[][] columns = {new int[n], new int[s], new int[s], new int[s], new int[s], new int[s]};
+            for (int[] column : columns) {
+                in.asIntBuffer().get(column);
+                in.position(in.position() + 4 * column.length);
+            }
+            double[] cost = new double[s];
+            in.asDoubleBuffer().get(cost);
+            return new ContractionHierarchy(graph, columns[0], columns[1], columns[2], columns[3], columns[4], columns[5], cost);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated contraction hierarchy", e);
+        }
+    }
+
+    /**
+     * Contraction state: a mutable adjacency list per node that gains shortcuts as nodes are
+     * removed. Initial priorities need one simulated contraction per node and are computed in
+     * parallel; afterwards only the neighbours of each contracted node are re-ranked. The
+     * contraction loop, with its witness searches, is sequential: every contraction changes the
+     * adjacency the next one reads.
+     */
+    private static final class Builder {
+        private final CsrGraph graph;
+        private final int n;
+        private final int m;
+
+        private final int[][] adjTarget;
+        private final double[][] adjWeight;
+        private final int[][] adjEdge;
+        private final int[] adjSize;
+
+        private final boolean[] contracted;
+        private final int[] contractedNeighbours;
+        private final int[] level;  // hierarchy depth below the node, keeps contraction spread out
+        private final int[] position;
+
+        private int[] scA = new int[16];
+        private int[] scB = new int[16];
+        private int[] scVia = new int[16];
+        private int[] scChildA = new int[16];
+        private int[] scChildB = new int[16];
+        private double[] scCost = new double[16];
+        private int shortcuts;
+
+        Builder(CsrGraph graph) {
+            this.graph = graph;
+            this.n = graph.nodeCount();
+            this.m = graph.edgeCount();
+            adjTarget = new int[n][];
+            adjWeight = new double[n][];
+            adjEdge = new int[n][];
+            adjSize = new int[n];
+            contracted = new boolean[n];
+            contractedNeighbours = new int[n];
+            level = new int[n];
+            position = new int[n];
+            Arrays.fill(position, -1);
+            for (int u = 0; u < n; u++) {
+                int capacity = graph.degree(u) + 2;
+                adjTarget[u] = new int[capacity];
+                adjWeight[u] = new double[capacity];
+                adjEdge[u] = new int[capacity];
+                for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                    if (graph.arcTarget(a) != u) {
+                        append(u, graph.arcTarget(a), graph.arcWeight(a), graph.arcEdge(a));
+                    }
+                }
+            }
+        }
+
+        ContractionHierarchy run(ForkJoinPool pool) {
+            double[] priority = new double[n];
+            ThreadLocal<Witness> witnesses = ThreadLocal.withInitial(Witness::new);
+            pool.submit(() -> IntStream.range(0, n).parallel()
+                .forEach(v -> priority[v] = contract(v, false, witnesses.get()))).join();
+
+            IndexedDaryHeap queue = new IndexedDaryHeap(n, 4);
+            for (int v = 0; v < n; v++) {
+                queue.push(v, priority[v]);
+            }
+
+            Witness witness = new Witness();
+            int[] rank = new int[n];
+            int next = 0;
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                contract(v, true, witness);
+                contracted[v] = true;
+                rank[v] = next++;
+                for (int i = 0; i < adjSize[v]; i++) {
+                    int x = adjTarget[v][i];
+                    if (!contracted[x]) {
+                        unlink(x, v);
+                        contractedNeighbours[x]++;
+                        level[x] = Math.max(level[x], level[v] + 1);
+                        queue.update(x, contract(x, false, witness));
+                    }
+                }
+            }
+
+            return new ContractionHierarchy(graph, rank,
+                Arrays.copyOf(scA, shortcuts), Arrays.copyOf(scB, shortcuts), Arrays.copyOf(scVia, shortcuts),
+                Arrays.copyOf(scChildA, shortcuts), Arrays.copyOf(scChildB, shortcuts), Arrays.copyOf(scCost, shortcuts));
+        }
+
+        // Simulates (apply == false) or performs the contraction of v; returns its priority
+        private double contract(int v, boolean apply, Witness witness) {
+            int k = 0;
+            int[] nb = new int[adjSize[v]];
+            double[] nw = new double[adjSize[v]];
+            int[] ne = new int[adjSize[v]];
+            for (int i = 0; i < adjSize[v]; i++) {
+                int u = adjTarget[v][i];
+                if (!contracted[u]) {
+                    nb[k] = u;
+                    nw[k] = adjWeight[v][i];
+                    ne[k] = adjEdge[v][i];
+                    k++;
+                }
+            }
+
+            if (!apply && k > SIMULATION_DEGREE_LIMIT) {
+                return 2.0 * (k * (k - 1) / 2 - k) + contractedNeighbours[v] + level[v];
+            }
+            int added = 0;
+            int[] shortcutIds = apply ? new int[k * k] : null;
+            if (apply) {
+                Arrays.fill(shortcutIds, -1);
+            }
+            for (int i = 0; i < k - 1; i++) {
+                double limit = 0;
+                for (int j = i + 1; j < k; j++) {
+                    limit = Math.max(limit, nw[i] + nw[j]);
+                }
+                witness.search(nb[i], v, limit, apply ? WITNESS_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT, nb, i + 1, k);
+                for (int j = i + 1; j < k; j++) {
+                    double via = nw[i] + nw[j];
+                    if (witness.labels.dist(nb[j]) <= via) {
+                        continue;
+                    }
+                    added++;
+                    if (apply) {
+                        int id = addShortcut(nb[i], nb[j], v, ne[i], ne[j], via);
+                        shortcutIds[i * k + j] = id;
+                        shortcutIds[j * k + i] = id;
+                    }
+                }
+            }
+            if (apply) {
+                link(nb, k, shortcutIds);
+            }
+            return 2.0 * (added - k) + contractedNeighbours[v] + level[v];
+        }
+
+        private int addShortcut(int a, int b, int via, int childA, int childB, double cost) {
+            if (shortcuts == scA.length) {
+                int capacity = shortcuts * 2;
+                scA = Arrays.copyOf(scA, capacity);
+                scB = Arrays.copyOf(scB, capacity);
+                scVia = Arrays.copyOf(scVia, capacity);
+                scChildA = Arrays.copyOf(scChildA, capacity);
+                scChildB = Arrays.copyOf(scChildB, capacity);
+                scCost = Arrays.copyOf(scCost, capacity);
+            }
+            scA[shortcuts] = a;
+            scB[shortcuts] = b;
+            scVia[shortcuts] = via;
+            scChildA[shortcuts] = childA;
+            scChildB[shortcuts] = childB;
+            scCost[shortcuts] = cost;
+            return m + shortcuts++;
+        }
+
+        // Adds the new shortcut arcs of each neighbour, or lowers an existing arc to the same node.
+        // position[] indexes one neighbour's adjacency at a time, so each lookup is O(1).
+        private void link(int[] nb, int k, int[] shortcutIds) {
+            for (int i = 0; i < k; i++) {
+                int u = nb[i];
+                for (int a = 0; a < adjSize[u]; a++) {
+                    position[adjTarget[u][a]] = a;
+                }
+                for (int j = 0; j < k; j++) {
+                    int id = shortcutIds[i * k + j];
+                    if (id == -1) {
+                        continue;
+                    }
+                    int w = nb[j];
+                    double cost = scCost[id - m];
+                    int slot = position[w];
+                    if (slot == -1) {
+                        position[w] = adjSize[u];
+                        append(u, w, cost, id);
+                    } else if (cost < adjWeight[u][slot]) {
+                        adjWeight[u][slot] = cost;
+                        adjEdge[u][slot] = id;
+                    }
+                }
+                for (int a = 0; a < adjSize[u]; a++) {
+                    position[adjTarget[u][a]] = -1;
+                }
+            }
+        }
+
+        // Drops the arc u -> v by moving the last arc into its place
+        private void unlink(int u, int v) {
+            int last = adjSize[u] - 1;
+            for (int i = 0; i <= last; i++) {
+                if (adjTarget[u][i] == v) {
+                    adjTarget[u][i] = adjTarget[u][last];
+                    adjWeight[u][i] = adjWeight[u][last];
+                    adjEdge[u][i] = adjEdge[u][last];
+                    adjSize[u] = last;
+                    return;
+                }
+            }
+        }
+
+        private void append(int u, int v, double weight, int edge) {
+            int size = adjSize[u];
+            if (size == adjTarget[u].length) {
+                int capacity = Math.max(4, size * 2);
+                adjTarget[u] = Arrays.copyOf(adjTarget[u], capacity);
+                adjWeight[u] = Arrays.copyOf(adjWeight[u], capacity);
+                adjEdge[u] = Arrays.copyOf(adjEdge[u], capacity);
+            }
+            adjTarget[u][size] = v;
+            adjWeight[u][size] = weight;
+            adjEdge[u][size] = edge;
+            adjSize[u] = size + 1;
+        }
+
+        // Bounded Dijkstra over the remaining graph that avoids the node being contracted
+        private final class Witness {
+            final SparseLabels labels = new SparseLabels(WITNESS_SETTLE_LIMIT);
+            final LazyMinHeap queue = new LazyMinHeap(WITNESS_SETTLE_LIMIT);
+            final SparseLabels pending = new SparseLabels(16);
+
+            // Stops early once every node in targets[from, to) is settled
+            void search(int source, int excluded, double limit, int settleLimit, int[] targets, int from, int to) {
+                labels.clear();
+                queue.clear();
+                pending.clear();
+                for (int t = from; t < to; t++) {
+                    pending.set(targets[t], 0, -1, -1);
+                }
+                int remaining = to - from;
+                labels.set(source, 0, -1, -1);
+                queue.push(0, source);
+                int settled = 0;
+                while (!queue.isEmpty()) {
+                    double d = queue.peekKey();
+                    int u = queue.poll();
+                    if (d > labels.dist(u)) {
+                        continue;
+                    }
+                    if (d > limit || ++settled > settleLimit) {
+                        return;
+                    }
+                    if (pending.dist(u) == 0) {
+                        pending.set(u, 1, -1, -1);
+                        if (--remaining == 0) {
+                            return;
+                        }
+                    }
+                    for (int i = 0; i < adjSize[u]; i++) {
+                        int x = adjTarget[u][i];
+                        if (x == excluded || contracted[x]) {
+                            continue;
+                        }
+                        double alt = d + adjWeight[u][i];
+                        if (alt < labels.dist(x)) {
+                            labels.set(x, alt, u, -1);
+                            queue.push(alt, x);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
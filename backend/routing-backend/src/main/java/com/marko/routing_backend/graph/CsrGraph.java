@@ -0,0 +1,233 @@
+package com.marko.routing_backend.graph;
+
+import com.marko.routing_backend.dto.EdgeColumnList;
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.NodeColumnList;
+import com.marko.routing_backend.dto.NodeDto;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable undirected graph in compressed-sparse-row form. Every input edge i becomes two arcs
+ * (start -> end and end -> start); each arc remembers i so results can be mapped back to the
+ * request's edge list in O(1). Parallel edges collapse into a single arc carrying the cheapest
+ * cost. The original edge columns are kept as well for edge-ordered algorithms, and node
+ * coordinates when the graph has them.
+ */
+public final class CsrGraph {
+    private final int nodeCount;
+
+    // Original edge list, column-wise
+    private final int[] edgeStart;
+    private final int[] edgeEnd;
+    private final double[] edgeCost;
+
+    // Arcs of node u live in [offsets[u], offsets[u + 1])
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final int[] arcEdge;
+
+    // Node positions, null when built without coordinates
+    private final double[] x;
+    private final double[] y;
+
+    private final double minCost;
+    private final double costPerDistance;
+
+    private CsrGraph(int nodeCount, int[] edgeStart, int[] edgeEnd, double[] edgeCost, double[] x, double[] y) {
+        this.nodeCount = nodeCount;
+        this.edgeStart = edgeStart;
+        this.edgeEnd = edgeEnd;
+        this.edgeCost = edgeCost;
+        this.x = x;
+        this.y = y;
+
+        int m = edgeStart.length;
+        int[] degree = new int[nodeCount + 1];
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < m; i++) {
+            degree[edgeStart[i]]++;
+            degree[edgeEnd[i]]++;
+            min = Math.min(min, edgeCost[i]);
+        }
+        this.minCost = min;
+        this.costPerDistance = x == null ? 0 : minCostPerDistance(edgeStart, edgeEnd, edgeCost, x, y);
+
+        int[] firstArc = new int[nodeCount + 1];
+        for (int u = 0; u < nodeCount; u++) {
+            firstArc[u + 1] = firstArc[u] + degree[u];
+        }
+
+        int arcs = firstArc[nodeCount];
+        int[] arcTarget = new int[arcs];
+        double[] arcWeight = new double[arcs];
+        int[] arcSource = new int[arcs];
+
+        // Counting-sort fill keeps arcs of each node in input edge order
+        int[] cursor = new int[nodeCount];
+        System.arraycopy(firstArc, 0, cursor, 0, nodeCount);
+        for (int i = 0; i < m; i++) {
+            int s = edgeStart[i];
+            int e = edgeEnd[i];
+            int a = cursor[s]++;
+            arcTarget[a] = e;
+            arcWeight[a] = edgeCost[i];
+            arcSource[a] = i;
+            int b = cursor[e]++;
+            arcTarget[b] = s;
+            arcWeight[b] = edgeCost[i];
+            arcSource[b] = i;
+        }
+
+        // Collapse parallel arcs so only the cheapest edge between two nodes is ever relaxed.
+        // slot[v] holds the output position of u's arc to v; positions only grow, so entries
+        // left over from earlier nodes are recognised by being below the current node's start.
+        this.offsets = new int[nodeCount + 1];
+        int[] slot = new int[nodeCount];
+        Arrays.fill(slot, -1);
+        int out = 0;
+        for (int u = 0; u < nodeCount; u++) {
+            int outStart = out;
+            offsets[u] = outStart;
+            for (int a = firstArc[u]; a < firstArc[u + 1]; a++) {
+                int v = arcTarget[a];
+                int existing = slot[v];
+                if (existing >= outStart) {
+                    if (arcWeight[a] < arcWeight[existing]) {
+                        arcWeight[existing] = arcWeight[a];
+                        arcSource[existing] = arcSource[a];
+                    }
+                    continue;
+                }
+                slot[v] = out;
+                arcTarget[out] = v;
+                arcWeight[out] = arcWeight[a];
+                arcSource[out] = arcSource[a];
+                out++;
+            }
+        }
+        offsets[nodeCount] = out;
+
+        this.targets = out == arcs ? arcTarget : Arrays.copyOf(arcTarget, out);
+        this.weights = out == arcs ? arcWeight : Arrays.copyOf(arcWeight, out);
+        this.arcEdge = out == arcs ? arcSource : Arrays.copyOf(arcSource, out);
+    }
+
+    // Lowest cost per unit of Euclidean length over all edges; zero-length edges put no bound on it
+    private static double minCostPerDistance(int[] start, int[] end, double[] cost, double[] x, double[] y) {
+        double ratio = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < start.length; i++) {
+            double length = Math.hypot(x[start[i]] - x[end[i]], y[start[i]] - y[end[i]]);
+            if (length > 0) {
+                ratio = Math.min(ratio, cost[i] / length);
+            }
+        }
+        return ratio == Double.POSITIVE_INFINITY || ratio < 0 ? 0 : ratio;
+    }
+
+    public static CsrGraph fromRequest(GraphOperationRequest request) {
+        return undirected(request.getNodes(), request.getEdges());
+    }
+
+    public static CsrGraph undirected(List<NodeDto> nodes, List<EdgeDto> edges) {
+        // Streamed request bodies already hold the columns
+        if (nodes instanceof NodeColumnList nodeColumns && edges instanceof EdgeColumnList edgeColumns) {
+            return fromColumns(nodeColumns.size(), edgeColumns.startColumn(), edgeColumns.endColumn(),
+                edgeColumns.costColumn(), nodeColumns.xColumn(), nodeColumns.yColumn());
+        }
+        int n = nodes.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            NodeDto node = nodes.get(i);
+            if (node != null) {
+                x[i] = node.getX();
+                y[i] = node.getY();
+            }
+        }
+        int m = edges.size();
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            EdgeDto e = edges.get(i);
+            start[i] = e.getStart();
+            end[i] = e.getEnd();
+            cost[i] = e.getCost();
+        }
+        return fromColumns(n, start, end, cost, x, y);
+    }
+
+    public static CsrGraph undirected(int nodeCount, List<EdgeDto> edges) {
+        if (edges instanceof EdgeColumnList columns) {
+            return fromColumns(nodeCount, columns.startColumn(), columns.endColumn(), columns.costColumn());
+        }
+        int m = edges.size();
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            EdgeDto e = edges.get(i);
+            start[i] = e.getStart();
+            end[i] = e.getEnd();
+            cost[i] = e.getCost();
+        }
+        return fromColumns(nodeCount, start, end, cost);
+    }
+
+    public static CsrGraph fromColumns(int nodeCount, int[] start, int[] end, double[] cost) {
+        return fromColumns(nodeCount, start, end, cost, null, null);
+    }
+
+    public static CsrGraph fromColumns(int nodeCount, int[] start, int[] end, double[] cost, double[] x, double[] y) {
+        if (start.length != end.length || start.length != cost.length) {
+            throw new IllegalArgumentException("Edge columns must have equal length");
+        }
+        if ((x == null) != (y == null) || (x != null && (x.length != nodeCount || y.length != nodeCount))) {
+            throw new IllegalArgumentException("Coordinate columns must cover every node");
+        }
+        for (int i = 0; i < start.length; i++) {
+            if (start[i] < 0 || start[i] >= nodeCount || end[i] < 0 || end[i] >= nodeCount) {
+                throw new IllegalArgumentException("Edge references invalid node index: start=" + start[i] + ", end=" + end[i]);
+            }
+        }
+        return new CsrGraph(nodeCount, start, end, cost, x, y);
+    }
+
+    public int nodeCount() { return nodeCount; }
+    public int edgeCount() { return edgeStart.length; }
+    public int arcCount() { return targets.length; }
+
+    public int edgeStart(int edge) { return edgeStart[edge]; }
+    public int edgeEnd(int edge) { return edgeEnd[edge]; }
+    public double edgeCost(int edge) { return edgeCost[edge]; }
+
+    public int firstArc(int node) { return offsets[node]; }
+    public int endArc(int node) { return offsets[node + 1]; }
+    public int degree(int node) { return offsets[node + 1] - offsets[node]; }
+
+    public int arcTarget(int arc) { return targets[arc]; }
+    public double arcWeight(int arc) { return weights[arc]; }
+    public int arcEdge(int arc) { return arcEdge[arc]; }
+
+    public boolean hasNegativeEdges() { return minCost < 0; }
+
+    public boolean hasCoordinates() { return x != null; }
+    public double x(int node) { return x[node]; }
+    public double y(int node) { return y[node]; }
+
+    /**
+     * Scale that turns straight-line distance into a lower bound on path cost: no edge costs less
+     * than this per unit of length, so neither can any path. Zero without coordinates.
+     */
+    public double costPerDistance() { return costPerDistance; }
+
+    // Retained size of the arrays, used to bound caches of built graphs
+    public long estimatedBytes() {
+        return 64 + 16L * edgeStart.length + 4L * offsets.length + 16L * targets.length
+            + (x == null ? 0 : 16L * nodeCount);
+    }
+}
@@ -0,0 +1,112 @@
+package com.marko.routing_backend.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Many-to-many shortest path costs as one Dijkstra per source that stops as soon as every
+ * distinct target is settled. Sources are split into chunks run on the given pool; each chunk
+ * reuses one set of search arrays and resets only the nodes it touched between sources.
+ */
+public final class DistanceMatrix {
+
+    private DistanceMatrix() {}
+
+    /**
+     * Row-major costs, {@code result[i * targets.length + j]} from sources[i] to targets[j];
+     * unreachable pairs are positive infinity.
+     */
+    public static double[] compute(CsrGraph graph, int[] sources, int[] targets, ForkJoinPool pool) {
+        if (graph.hasNegativeEdges()) {
+            throw new IllegalArgumentException("Distance matrices require non-negative edge costs");
+        }
+        int n = graph.nodeCount();
+        boolean[] isTarget = new boolean[n];
+        int distinctTargets = 0;
+        for (int target : targets) {
+            if (!isTarget[target]) {
+                isTarget[target] = true;
+                distinctTargets++;
+            }
+        }
+
+        double[] result = new double[sources.length * targets.length];
+        int chunks = Math.min(sources.length, 4 * pool.getParallelism());
+        int remaining = distinctTargets;
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) ((long) sources.length * c / chunks);
+            int to = (int) ((long) sources.length * (c + 1) / chunks);
+            tasks.add(pool.submit(() -> {
+                Search search = new Search(graph);
+                for (int i = from; i < to; i++) {
+                    search.run(sources[i], isTarget, remaining);
+                    for (int j = 0; j < targets.length; j++) {
+                        result[i * targets.length + j] = search.dist[targets[j]];
+                    }
+                    search.reset();
+                }
+            }));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+        return result;
+    }
+
+    private static final class Search {
+        private final CsrGraph graph;
+        private final double[] dist;
+        private final IndexedDaryHeap queue;
+        private final int[] touched;
+        private int touchedCount;
+
+        Search(CsrGraph graph) {
+            int n = graph.nodeCount();
+            this.graph = graph;
+            this.dist = new double[n];
+            this.queue = new IndexedDaryHeap(n, 4);
+            this.touched = new int[n];
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        }
+
+        void run(int source, boolean[] isTarget, int targetCount) {
+            label(source, 0);
+            queue.push(source, 0);
+            int pending = targetCount;
+            while (!queue.isEmpty()) {
+                int u = queue.poll();
+                if (isTarget[u] && --pending == 0) {
+                    return;
+                }
+                double du = dist[u];
+                for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                    int v = graph.arcTarget(a);
+                    double alt = du + graph.arcWeight(a);
+                    if (alt < dist[v]) {
+                        label(v, alt);
+                        queue.push(v, alt);
+                    }
+                }
+            }
+        }
+
+        private void label(int node, double value) {
+            if (dist[node] == Double.POSITIVE_INFINITY) {
+                touched[touchedCount++] = node;
+            }
+            dist[node] = value;
+        }
+
+        void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                dist[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            queue.clear();
+        }
+    }
+}
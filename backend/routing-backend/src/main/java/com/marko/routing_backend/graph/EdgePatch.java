@@ -0,0 +1,94 @@
+package com.marko.routing_backend.graph;
+
+/**
+ * A batch of edge changes against edge indices of the current graph: cost updates, removals and
+ * appended edges, applied in that order. Removing an edge shifts every later index down by one.
+ */
+public final class EdgePatch {
+    private final int[] updateIndex;
+    private final double[] updateCost;
+    private final int[] remove;
+    private final int[] addStart;
+    private final int[] addEnd;
+    private final double[] addCost;
+
+    public EdgePatch(int[] updateIndex, double[] updateCost, int[] remove, int[] addStart, int[] addEnd, double[] addCost) {
+        if (updateIndex.length != updateCost.length || addStart.length != addEnd.length || addStart.length != addCost.length) {
+            throw new IllegalArgumentException("Edge patch columns differ in length");
+        }
+        this.updateIndex = updateIndex;
+        this.updateCost = updateCost;
+        this.remove = remove;
+        this.addStart = addStart;
+        this.addEnd = addEnd;
+        this.addCost = addCost;
+    }
+
+    public int size() { return updateIndex.length + remove.length + addStart.length; }
+    public int addedCount() { return addStart.length; }
+
+    public GraphColumns apply(GraphColumns graph) {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        double[] cost = graph.edgeCost().clone();
+        for (int i = 0; i < updateIndex.length; i++) {
+            cost[checkIndex(updateIndex[i], m)] = updateCost[i];
+        }
+        boolean[] removed = new boolean[m];
+        int removedCount = 0;
+        for (int index : remove) {
+            if (!removed[checkIndex(index, m)]) {
+                removed[index] = true;
+                removedCount++;
+            }
+        }
+        for (int i = 0; i < addStart.length; i++) {
+            if (addStart[i] < 0 || addStart[i] >= n || addEnd[i] < 0 || addEnd[i] >= n) {
+                throw new IllegalArgumentException("Edge references invalid node index: start=" + addStart[i] + ", end=" + addEnd[i]);
+            }
+        }
+
+        int size = m - removedCount + addStart.length;
+        int[] start = new int[size];
+        int[] end = new int[size];
+        double[] newCost = new double[size];
+        int k = 0;
+        for (int e = 0; e < m; e++) {
+            if (!removed[e]) {
+                start[k] = graph.edgeStart()[e];
+                end[k] = graph.edgeEnd()[e];
+                newCost[k++] = cost[e];
+            }
+        }
+        System.arraycopy(addStart, 0, start, k, addStart.length);
+        System.arraycopy(addEnd, 0, end, k, addEnd.length);
+        System.arraycopy(addCost, 0, newCost, k, addCost.length);
+        return new GraphColumns(graph.x(), graph.y(), graph.ids(), graph.labels(), start, end, newCost);
+    }
+
+    /** Endpoints of every changed edge as flat pairs {a0, b0, a1, b1, ...}, looked up in {@code before}. */
+    public int[] touchedPairs(GraphColumns before) {
+        int[] pairs = new int[2 * size()];
+        int k = 0;
+        for (int index : updateIndex) {
+            pairs[k++] = before.edgeStart()[index];
+            pairs[k++] = before.edgeEnd()[index];
+        }
+        for (int index : remove) {
+            pairs[k++] = before.edgeStart()[index];
+            pairs[k++] = before.edgeEnd()[index];
+        }
+        for (int i = 0; i < addStart.length; i++) {
+            pairs[k++] = addStart[i];
+            pairs[k++] = addEnd[i];
+        }
+        return pairs;
+    }
+
+    private static int checkIndex(int index, int edgeCount) {
+        if (index < 0 || index >= edgeCount) {
+            throw new IllegalArgumentException("Invalid edge index: " + index);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,194 @@
+package com.marko.routing_backend.graph;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Versioned little-endian binary format for {@link GraphColumns}:
+ * <pre>
+ * header   magic "RGRF", version, flags, 2 reserved bytes, nodeCount, edgeCount  (16 bytes)
+ * nodes    x[n], y[n] as doubles
+ * costs    cost[m] as doubles
+ * edges    start[m], end[m] as ints, or with FLAG_VARINT one zigzag varint pair per edge:
+ *          start - previous start, end - start
+ * ids      int[n] if FLAG_IDS
+ * labels   per node a varint (UTF-8 length + 1, 0 for null) and the bytes, if FLAG_LABELS
+ * </pre>
+ * The fixed-width sections are bulk-copied, so a memory-mapped file decodes at memcpy speed.
+ */
+public final class GraphCodec {
+    public static final int MAGIC = 0x46524752;  // "RGRF" read little-endian
+    public static final byte VERSION = 1;
+
+    static final int FLAG_VARINT = 1;
+    static final int FLAG_IDS = 2;
+    static final int FLAG_LABELS = 4;
+
+    private static final int HEADER_BYTES = 16;
+
+    private GraphCodec() {}
+
+    public static byte[] encode(GraphColumns graph, boolean compress) {
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        byte[][] labels = null;
+        long labelBytes = 0;
+        if (graph.labels() != null) {
+            labels = new byte[n][];
+            for (int i = 0; i < n; i++) {
+                String label = graph.labels()[i];
+                labels[i] = label == null ? null : label.getBytes(StandardCharsets.UTF_8);
+                labelBytes += 5 + (labels[i] == null ? 0 : labels[i].length);
+            }
+        }
+
+        long capacity = HEADER_BYTES + 16L * n + 8L * m + (compress ? 10L * m : 8L * m)
+            + (graph.ids() == null ? 0 : 4L * n) + labelBytes;
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Graph too large to encode: " + capacity + " bytes");
+        }
+        ByteBuffer out = ByteBuffer.allocate((int) capacity).order(ByteOrder.LITTLE_ENDIAN);
+
+        int flags = (compress ? FLAG_VARINT : 0) | (graph.ids() == null ? 0 : FLAG_IDS) | (labels == null ? 0 : FLAG_LABELS);
+        out.putInt(MAGIC).put(VERSION).put((byte) flags).putShort((short) 0).putInt(n).putInt(m);
+
+        out.asDoubleBuffer().put(graph.x()).put(graph.y()).put(graph.edgeCost());
+        out.position(out.position() + 8 * (2 * n + m));
+
+        if (compress) {
+            int previous = 0;
+            for (int i = 0; i < m; i++) {
+                int start = graph.edgeStart()[i];
+                putVarint(out, zigzag(start - previous));
+                putVarint(out, zigzag(graph.edgeEnd()[i] - start));
+                previous = start;
+            }
+        } else {
+            out.asIntBuffer().put(graph.edgeStart()).put(graph.edgeEnd());
+            out.position(out.position() + 8 * m);
+        }
+
+        if (graph.ids() != null) {
+            out.asIntBuffer().put(graph.ids());
+            out.position(out.position() + 4 * n);
+        }
+        if (labels != null) {
+            for (byte[] label : labels) {
+                putVarint(out, label == null ? 0 : label.length + 1);
+                if (label != null) {
+                    out.put(label);
+                }
+            }
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    public static GraphColumns decode(byte[] data) {
+        return decode(ByteBuffer.wrap(data));
+    }
+
+    // Reads from the buffer's position without copying it first; works on heap and mapped buffers
+    public static GraphColumns decode(ByteBuffer buffer) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a binary graph");
+            }
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported binary graph version: " + version);
+            }
+            int flags = in.get();
+            in.getShort();
+            int n = in.getInt();
+            int m = in.getInt();
+            if (n < 0 || m < 0 || in.remaining() < 16L * n + 8L * m) {
+                throw new IllegalArgumentException("Truncated binary graph");
+            }
+
+            double[] x = new double[n];
+            double[] y = new double[n];
+            double[] cost = new double[m];
+            in.asDoubleBuffer().get(x).get(y).get(cost);
+            in.position(in.position() + 8 * (2 * n + m));
+
+            int[] start = new int[m];
+            int[] end = new int[m];
+            if ((flags & FLAG_VARINT) != 0) {
+                int previous = 0;
+                for (int i = 0; i < m; i++) {
+                    start[i] = previous + unzigzag(getVarint(in));
+                    end[i] = start[i] + unzigzag(getVarint(in));
+                    previous = start[i];
+                }
+            } else {
+                in.asIntBuffer().get(start).get(end);
+                in.position(in.position() + 8 * m);
+            }
+
+            int[] ids = null;
+            if ((flags & FLAG_IDS) != 0) {
+                ids = new int[n];
+                in.asIntBuffer().get(ids);
+                in.position(in.position() + 4 * n);
+            }
+            String[] labels = null;
+            if ((flags & FLAG_LABELS) != 0) {
+                labels = new String[n];
+                for (int i = 0; i < n; i++) {
+                    int length = getVarint(in);
+                    if (length > 0) {
+                        byte[] bytes = new byte[length - 1];
+                        in.get(bytes);
+                        labels[i] = new String(bytes, StandardCharsets.UTF_8);
+                    }
+                }
+            }
+            return new GraphColumns(x, y, ids, labels, start, end, cost);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated binary graph", e);
+        }
+    }
+
+    // Maps the file instead of reading it through the heap
+    public static GraphColumns read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static int getVarint(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in binary graph");
+    }
+}
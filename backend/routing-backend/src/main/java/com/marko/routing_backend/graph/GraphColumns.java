@@ -0,0 +1,103 @@
+package com.marko.routing_backend.graph;
+
+import com.marko.routing_backend.dto.EdgeColumnList;
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.NodeDto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A graph as plain column arrays, the unit {@link GraphCodec} reads and writes. Node ids and
+ * labels are optional (null when every id equals its index / no node has a label).
+ */
+public final class GraphColumns {
+    private final double[] x;
+    private final double[] y;
+    private final int[] ids;
+    private final String[] labels;
+    private final int[] edgeStart;
+    private final int[] edgeEnd;
+    private final double[] edgeCost;
+
+    public GraphColumns(double[] x, double[] y, int[] ids, String[] labels,
+                        int[] edgeStart, int[] edgeEnd, double[] edgeCost) {
+        this.x = x;
+        this.y = y;
+        this.ids = ids;
+        this.labels = labels;
+        this.edgeStart = edgeStart;
+        this.edgeEnd = edgeEnd;
+        this.edgeCost = edgeCost;
+    }
+
+    public static GraphColumns fromDtos(List<NodeDto> nodes, List<EdgeDto> edges) {
+        int n = nodes.size();
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] ids = new int[n];
+        String[] labels = new String[n];
+        boolean customIds = false;
+        boolean anyLabel = false;
+        for (int i = 0; i < n; i++) {
+            NodeDto node = nodes.get(i);
+            if (node == null) {
+                ids[i] = i;
+                continue;
+            }
+            x[i] = node.getX();
+            y[i] = node.getY();
+            ids[i] = node.getId();
+            labels[i] = node.getLabel();
+            customIds |= node.getId() != i;
+            anyLabel |= node.getLabel() != null;
+        }
+
+        if (edges instanceof EdgeColumnList columns) {
+            return new GraphColumns(x, y, customIds ? ids : null, anyLabel ? labels : null,
+                columns.startColumn(), columns.endColumn(), columns.costColumn());
+        }
+        int m = edges.size();
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            EdgeDto e = edges.get(i);
+            start[i] = e.getStart();
+            end[i] = e.getEnd();
+            cost[i] = e.getCost();
+        }
+        return new GraphColumns(x, y, customIds ? ids : null, anyLabel ? labels : null, start, end, cost);
+    }
+
+    public List<NodeDto> toNodes() {
+        List<NodeDto> nodes = new ArrayList<>(x.length);
+        for (int i = 0; i < x.length; i++) {
+            nodes.add(new NodeDto(ids == null ? i : ids[i], x[i], y[i], labels == null ? null : labels[i]));
+        }
+        return nodes;
+    }
+
+    public List<EdgeDto> toEdges() {
+        List<EdgeDto> edges = new ArrayList<>(edgeStart.length);
+        for (int i = 0; i < edgeStart.length; i++) {
+            edges.add(new EdgeDto(edgeStart[i], edgeEnd[i], edgeCost[i]));
+        }
+        return edges;
+    }
+
+    public CsrGraph toGraph() {
+        return CsrGraph.fromColumns(x.length, edgeStart, edgeEnd, edgeCost, x, y);
+    }
+
+    public int nodeCount() { return x.length; }
+    public int edgeCount() { return edgeStart.length; }
+
+    double[] x() { return x; }
+    double[] y() { return y; }
+    int[] ids() { return ids; }
+    String[] labels() { return labels; }
+    int[] edgeStart() { return edgeStart; }
+    int[] edgeEnd() { return edgeEnd; }
+    double[] edgeCost() { return edgeCost; }
+}
@@ -0,0 +1,138 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Array-backed d-ary min-heap with a position index per node, so decrease-key is an in-place
+ * sift-up and every node occupies at most one slot.
+ */
+public final class IndexedDaryHeap implements NodeQueue {
+    private final int arity;
+    private final int[] heap;
+    private final int[] pos;     // slot of each node in heap, -1 when absent
+    private final double[] keys;
+    private int size;
+
+    public IndexedDaryHeap(int nodeCount, int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Heap arity must be at least 2");
+        }
+        this.arity = arity;
+        this.heap = new int[nodeCount];
+        this.pos = new int[nodeCount];
+        this.keys = new double[nodeCount];
+        Arrays.fill(pos, -1);
+    }
+
+    @Override
+    public void push(int node, double key) {
+        int slot = pos[node];
+        if (slot == -1) {
+            keys[node] = key;
+            heap[size] = node;
+            pos[node] = size;
+            siftUp(size++);
+        } else if (key < keys[node]) {
+            keys[node] = key;
+            siftUp(slot);
+        }
+    }
+
+    @Override
+    public int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = heap[0];
+        pos[top] = -1;
+        if (--size > 0) {
+            int last = heap[size];
+            heap[0] = last;
+            pos[last] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    @Override
+    public double peekKey() {
+        return size == 0 ? Double.POSITIVE_INFINITY : keys[heap[0]];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Sets the key of a node in either direction, inserting it if absent
+    public void update(int node, double key) {
+        int slot = pos[node];
+        if (slot == -1) {
+            push(node, key);
+            return;
+        }
+        double old = keys[node];
+        keys[node] = key;
+        if (key < old) {
+            siftUp(slot);
+        } else {
+            siftDown(slot);
+        }
+    }
+
+    // Empties the heap in O(size) so it can be reused without reallocating the index
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int node = heap[slot];
+        double key = keys[node];
+        while (slot > 0) {
+            int parent = (slot - 1) / arity;
+            int parentNode = heap[parent];
+            if (keys[parentNode] <= key) {
+                break;
+            }
+            heap[slot] = parentNode;
+            pos[parentNode] = slot;
+            slot = parent;
+        }
+        heap[slot] = node;
+        pos[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int node = heap[slot];
+        double key = keys[node];
+        while (true) {
+            int first = slot * arity + 1;
+            if (first >= size) {
+                break;
+            }
+            int last = Math.min(first + arity, size);
+            int best = first;
+            double bestKey = keys[heap[first]];
+            for (int c = first + 1; c < last; c++) {
+                double k = keys[heap[c]];
+                if (k < bestKey) {
+                    best = c;
+                    bestKey = k;
+                }
+            }
+            if (bestKey >= key) {
+                break;
+            }
+            int child = heap[best];
+            heap[slot] = child;
+            pos[child] = slot;
+            slot = best;
+        }
+        heap[slot] = node;
+        pos[node] = slot;
+    }
+}
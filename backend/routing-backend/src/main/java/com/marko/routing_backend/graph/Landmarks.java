@@ -0,0 +1,204 @@
+package com.marko.routing_backend.graph;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.IntStream;
+
+/**
+ * ALT preprocessing: shortest-path distances from a few landmark nodes to every node, stored as
+ * floats in node-major order so one node's row is a single cache line for small counts. By the
+ * triangle inequality |d(L,t) - d(L,v)| is a lower bound on d(v,t) for every landmark L, which
+ * makes the maximum over landmarks an admissible A* heuristic without coordinates (consistent up
+ * to float rounding; a node that is reached more cheaply after being settled is simply queued again).
+ *
+ * <p>Landmarks are picked farthest-first by hop count, which is cheap and sequential; the exact
+ * distance tables are then filled by one Dijkstra per landmark in parallel.
+ */
+public final class Landmarks {
+    public static final int MAGIC = 0x4D4C4752;  // "RGLM" read little-endian
+    public static final byte VERSION = 1;
+
+    private final int nodeCount;
+    private final int[] nodes;
+    private final float[] distances;  // distances[v * count + l], rounded down; infinity if unreachable
+
+    private Landmarks(int nodeCount, int[] nodes, float[] distances) {
+        this.nodeCount = nodeCount;
+        this.nodes = nodes;
+        this.distances = distances;
+    }
+
+    public static Landmarks build(CsrGraph graph, int count, ForkJoinPool pool) {
+        if (graph.hasNegativeEdges()) {
+            throw new IllegalArgumentException("Landmarks require non-negative edge costs");
+        }
+        int n = graph.nodeCount();
+        int[] nodes = selectFarthest(graph, Math.max(1, Math.min(count, n)));
+        int k = nodes.length;
+        float[] distances = new float[n * k];
+        pool.submit(() -> IntStream.range(0, k).parallel().forEach(l -> {
+            double[] dist = shortestDistances(graph, nodes[l]);
+            for (int v = 0; v < n; v++) {
+                distances[v * k + l] = roundDown(dist[v]);
+            }
+        })).join();
+        return new Landmarks(n, nodes, distances);
+    }
+
+    public int count() { return nodes.length; }
+    public int[] nodes() { return nodes; }
+
+    public long estimatedBytes() {
+        return 32 + 4L * nodes.length + 4L * distances.length;
+    }
+
+    /** Lower bound on the remaining cost from any node to {@code target}. */
+    public IntToDoubleFunction towards(int target) {
+        int k = nodes.length;
+        float[] row = Arrays.copyOfRange(distances, target * k, target * k + k);
+        return v -> {
+            double best = 0;
+            int base = v * k;
+            for (int l = 0; l < k; l++) {
+                float toTarget = row[l];
+                float toNode = distances[base + l];
+                // A landmark that cannot reach both nodes says nothing about their distance
+                if (toTarget == Float.POSITIVE_INFINITY || toNode == Float.POSITIVE_INFINITY) {
+                    continue;
+                }
+                // Both values were rounded down by up to one ulp, so their difference can be
+                // one ulp too large; subtracting it keeps the bound admissible
+                double bound = Math.abs(toTarget - toNode) - Math.ulp(Math.max(toTarget, toNode));
+                if (bound > best) {
+                    best = bound;
+                }
+            }
+            return best;
+        };
+    }
+
+    // Layout: magic, version, 3 reserved bytes, nodeCount, landmarkCount, nodes[k], distances[n*k]
+    public byte[] encode() {
+        int k = nodes.length;
+        ByteBuffer out = ByteBuffer.allocate(16 + 4 * k + 4 * distances.length).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(MAGIC).put(VERSION).put((byte) 0).putShort((short) 0);
+        out.putInt(nodeCount).putInt(k);
+        out.asIntBuffer().put(nodes);
+        out.position(out.position() + 4 * k);
+        out.asFloatBuffer().put(distances);
+        return out.array();
+    }
+
+    public static Landmarks decode(CsrGraph graph, byte[] data) {
+        ByteBuffer in = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            if (in.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a landmark table");
+            }
+            byte version = in.get();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported landmark table version: " + version);
+            }
+            in.get();
+            in.getShort();
+            int n = in.getInt();
+            int k = in.getInt();
+            if (n != graph.nodeCount()) {
+                throw new IllegalArgumentException("Landmark table was built for a different graph");
+            }
+            if (k < 1 || in.remaining() != 4L * k + 4L * n * k) {
+                throw new IllegalArgumentException("Truncated landmark table");
+            }
+            int[] nodes = new int[k];
+            float[] distances = new float[n * k];
+            in.asIntBuffer().get(nodes);
+            in.position(in.position() + 4 * k);
+            in.asFloatBuffer().get(distances);
+            return new Landmarks(n, nodes, distances);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated landmark table", e);
+        }
+    }
+
+    // The first landmark is the node with the most hops from node 0, each further one the node
+    // with the most hops to all earlier ones. Unreached nodes count as infinitely far, so every
+    // component gets a landmark before any component gets a second.
+    private static int[] selectFarthest(CsrGraph graph, int count) {
+        int n = graph.nodeCount();
+        int[] hops = new int[n];
+        int[] queue = new int[n];
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        expand(graph, 0, hops, queue);
+        int next = farthest(hops);
+        Arrays.fill(hops, Integer.MAX_VALUE);
+
+        int[] nodes = new int[count];
+        for (int l = 0; l < count; l++) {
+            nodes[l] = next;
+            expand(graph, next, hops, queue);
+            next = farthest(hops);
+            if (hops[next] == 0) {
+                return Arrays.copyOf(nodes, l + 1);  // every node is already a landmark
+            }
+        }
+        return nodes;
+    }
+
+    // Breadth-first search that only lowers hop counts, so repeated calls give multi-source hops
+    private static void expand(CsrGraph graph, int source, int[] hops, int[] queue) {
+        int head = 0;
+        int tail = 0;
+        hops[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                if (hops[u] + 1 < hops[v]) {
+                    hops[v] = hops[u] + 1;
+                    queue[tail++] = v;
+                }
+            }
+        }
+    }
+
+    private static int farthest(int[] hops) {
+        int best = 0;
+        for (int v = 1; v < hops.length; v++) {
+            if (hops[v] > hops[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    private static double[] shortestDistances(CsrGraph graph, int source) {
+        int n = graph.nodeCount();
+        double[] dist = new double[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[source] = 0;
+        IndexedDaryHeap queue = new IndexedDaryHeap(n, 4);
+        queue.push(source, 0);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                double alt = dist[u] + graph.arcWeight(a);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    queue.push(v, alt);
+                }
+            }
+        }
+        return dist;
+    }
+
+    private static float roundDown(double value) {
+        float rounded = (float) value;
+        return rounded > value ? Math.nextDown(rounded) : rounded;
+    }
+}
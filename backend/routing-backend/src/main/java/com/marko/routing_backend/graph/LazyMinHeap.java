@@ -0,0 +1,79 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Binary min-heap of (key, node) entries without a position index: a node is simply pushed again
+ * when its key drops and callers skip entries whose key is above the node's current label. Its
+ * size follows the entries pushed, not the node count, which suits short bounded searches.
+ */
+final class LazyMinHeap {
+    private double[] keys;
+    private int[] nodes;
+    private int size;
+
+    LazyMinHeap(int capacity) {
+        keys = new double[Math.max(capacity, 4)];
+        nodes = new int[keys.length];
+    }
+
+    void push(double key, int node) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            nodes = Arrays.copyOf(nodes, size * 2);
+        }
+        int slot = size++;
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[slot] = keys[parent];
+            nodes[slot] = nodes[parent];
+            slot = parent;
+        }
+        keys[slot] = key;
+        nodes[slot] = node;
+    }
+
+    int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int top = nodes[0];
+        double key = keys[--size];
+        int node = nodes[size];
+        int slot = 0;
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[slot] = keys[child];
+            nodes[slot] = nodes[child];
+            slot = child;
+        }
+        keys[slot] = key;
+        nodes[slot] = node;
+        return top;
+    }
+
+    double peekKey() {
+        return size == 0 ? Double.POSITIVE_INFINITY : keys[0];
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
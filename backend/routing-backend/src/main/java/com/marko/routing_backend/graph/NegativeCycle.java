@@ -0,0 +1,96 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+
+/**
+ * A negative cycle as a closed node walk (first node repeated at the end) and the input edge index
+ * of every step along it, so nodes().length == edges().length + 1.
+ */
+public final class NegativeCycle {
+    private final int[] nodes;
+    private final int[] edges;
+
+    private NegativeCycle(int[] nodes, int[] edges) {
+        this.nodes = nodes;
+        this.edges = edges;
+    }
+
+    public int[] nodes() { return nodes; }
+    public int[] edges() { return edges; }
+
+    /**
+     * In an undirected graph every negative edge reachable from the source is a two-cycle
+     * (u -> v -> u), so this finds one in O(V + E) before any relaxation work is done.
+     */
+    public static NegativeCycle findNegativeEdge(CsrGraph graph, int source) {
+        if (!graph.hasNegativeEdges()) {
+            return null;
+        }
+        int n = graph.nodeCount();
+        boolean[] reached = new boolean[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        reached[source] = true;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                if (graph.arcWeight(a) < 0) {
+                    int e = graph.arcEdge(a);
+                    return new NegativeCycle(new int[]{u, v, u}, new int[]{e, e});
+                }
+                if (!reached[v]) {
+                    reached[v] = true;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Recovers the cycle from a predecessor graph after Bellman-Ford relaxed {@code hint} in its
+     * n-th pass. Walking n predecessors back from such a node is guaranteed to land on the cycle;
+     * returns null if the walk runs off the tree instead.
+     */
+    public static NegativeCycle fromPredecessors(int[] prev, int[] prevEdge, int hint) {
+        int n = prev.length;
+        int at = hint;
+        for (int i = 0; i < n && at != -1; i++) {
+            at = prev[at];
+        }
+        if (at == -1) {
+            return null;
+        }
+
+        // Walk the cycle backwards from a node on it, then reverse into forward order
+        int[] nodes = new int[n + 1];
+        int[] edges = new int[n];
+        int length = 0;
+        int node = at;
+        do {
+            nodes[length] = node;
+            edges[length] = prevEdge[node];
+            length++;
+            node = prev[node];
+        } while (node != at && length < n);
+        nodes[length] = at;
+
+        int[] forwardNodes = new int[length + 1];
+        int[] forwardEdges = new int[length];
+        for (int i = 0; i <= length; i++) {
+            forwardNodes[i] = nodes[length - i];
+        }
+        for (int i = 0; i < length; i++) {
+            forwardEdges[i] = edges[length - 1 - i];
+        }
+        return new NegativeCycle(forwardNodes, forwardEdges);
+    }
+
+    @Override
+    public String toString() {
+        return "NegativeCycle" + Arrays.toString(nodes);
+    }
+}
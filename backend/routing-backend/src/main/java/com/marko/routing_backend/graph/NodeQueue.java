@@ -0,0 +1,23 @@
+package com.marko.routing_backend.graph;
+
+/**
+ * Min-priority queue over dense int node ids with double keys, as used by label-setting searches.
+ * {@link #push} inserts a node or lowers its key; a push with a key that is not smaller than the
+ * node's current key is ignored. A node may be pushed again after it was polled.
+ */
+public interface NodeQueue {
+
+    void push(int node, double key);
+
+    int poll();
+
+    double peekKey();
+
+    boolean isEmpty();
+
+    enum Type { DARY, PAIRING }
+
+    static NodeQueue create(Type type, int nodeCount, int arity) {
+        return type == Type.PAIRING ? new PairingHeap(nodeCount) : new IndexedDaryHeap(nodeCount, arity);
+    }
+}
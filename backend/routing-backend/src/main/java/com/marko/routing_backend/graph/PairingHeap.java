@@ -0,0 +1,131 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Pairing heap with lazy deletion: a decrease-key inserts a fresh entry and the superseded one is
+ * discarded when it reaches the root. Entries live in parallel primitive arrays linked through
+ * child/sibling indices, so no per-entry objects are allocated.
+ */
+public final class PairingHeap implements NodeQueue {
+    private static final int NONE = -1;
+
+    // Entry pool
+    private int[] entryNode;
+    private double[] entryKey;
+    private int[] child;
+    private int[] sibling;
+    private int entries;
+
+    // Per node: key and id of its live entry, or NONE when the node is not queued
+    private final double[] keys;
+    private final int[] live;
+
+    private int root = NONE;
+    private int[] pairs = new int[16];
+
+    public PairingHeap(int nodeCount) {
+        int capacity = Math.max(16, nodeCount);
+        this.entryNode = new int[capacity];
+        this.entryKey = new double[capacity];
+        this.child = new int[capacity];
+        this.sibling = new int[capacity];
+        this.keys = new double[nodeCount];
+        this.live = new int[nodeCount];
+        Arrays.fill(live, NONE);
+    }
+
+    @Override
+    public void push(int node, double key) {
+        if (live[node] != NONE && key >= keys[node]) {
+            return;
+        }
+        if (entries == entryNode.length) {
+            int capacity = entries * 2;
+            entryNode = Arrays.copyOf(entryNode, capacity);
+            entryKey = Arrays.copyOf(entryKey, capacity);
+            child = Arrays.copyOf(child, capacity);
+            sibling = Arrays.copyOf(sibling, capacity);
+        }
+        int e = entries++;
+        entryNode[e] = node;
+        entryKey[e] = key;
+        child[e] = NONE;
+        sibling[e] = NONE;
+        keys[node] = key;
+        live[node] = e;
+        root = root == NONE ? e : link(root, e);
+    }
+
+    @Override
+    public int poll() {
+        discardStale();
+        if (root == NONE) {
+            throw new NoSuchElementException();
+        }
+        int node = entryNode[root];
+        live[node] = NONE;
+        removeRoot();
+        return node;
+    }
+
+    @Override
+    public double peekKey() {
+        discardStale();
+        return root == NONE ? Double.POSITIVE_INFINITY : entryKey[root];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        discardStale();
+        return root == NONE;
+    }
+
+    private void discardStale() {
+        while (root != NONE && live[entryNode[root]] != root) {
+            removeRoot();
+        }
+    }
+
+    private int link(int a, int b) {
+        if (entryKey[b] < entryKey[a]) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        sibling[b] = child[a];
+        child[a] = b;
+        return a;
+    }
+
+    // Standard two-pass merge of the root's children
+    private void removeRoot() {
+        int count = 0;
+        int c = child[root];
+        while (c != NONE) {
+            int next = sibling[c];
+            sibling[c] = NONE;
+            if (next != NONE) {
+                int after = sibling[next];
+                sibling[next] = NONE;
+                c = link(c, next);
+                next = after;
+            }
+            if (count == pairs.length) {
+                pairs = Arrays.copyOf(pairs, count * 2);
+            }
+            pairs[count++] = c;
+            c = next;
+        }
+        int merged = NONE;
+        for (int i = count - 1; i >= 0; i--) {
+            merged = merged == NONE ? pairs[i] : link(pairs[i], merged);
+        }
+        root = merged;
+        if (root == NONE) {
+            // Heap is empty, so the entry pool can be reused from the start
+            entries = 0;
+        }
+    }
+}
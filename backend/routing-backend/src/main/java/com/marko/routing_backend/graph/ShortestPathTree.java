@@ -0,0 +1,283 @@
+package com.marko.routing_backend.graph;
+
+import java.util.Arrays;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A Dijkstra search from one source that is kept after the query. It only grows until the
+ * requested target is settled; a later query for a settled node is a predecessor walk, and one
+ * for a farther node resumes from the saved queue. Once the queue runs dry the tree is complete
+ * and the queue is released. Queries are serialised, so one tree can be shared between threads.
+ *
+ * <p>A complete tree can be {@link #repair repaired} after edge changes instead of rebuilt.
+ */
+public final class ShortestPathTree {
+    private final CsrGraph graph;
+    private final int source;
+    private final double[] dist;
+    private final int[] prev;
+    private final boolean[] settled;
+    private NodeQueue queue;  // null once every reachable node is settled
+    private int settledCount;
+
+    public ShortestPathTree(CsrGraph graph, int source, NodeQueue queue) {
+        if (graph.hasNegativeEdges()) {
+            throw new IllegalArgumentException("Shortest-path trees require non-negative edge costs");
+        }
+        int n = graph.nodeCount();
+        this.graph = graph;
+        this.source = source;
+        this.dist = new double[n];
+        this.prev = new int[n];
+        this.settled = new boolean[n];
+        this.queue = queue;
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        dist[source] = 0;
+        queue.push(source, 0);
+    }
+
+    private ShortestPathTree(CsrGraph graph, int source, double[] dist, int[] prev) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = dist;
+        this.prev = prev;
+        this.settled = new boolean[dist.length];
+        for (int v = 0; v < dist.length; v++) {
+            if (dist[v] != Double.POSITIVE_INFINITY) {
+                settled[v] = true;
+                settledCount++;
+            }
+        }
+    }
+
+    public int source() { return source; }
+
+    public synchronized boolean isComplete() { return queue == null || queue.isEmpty(); }
+    public synchronized int settledCount() { return settledCount; }
+
+    // Upper bound: arrays plus a queue of about 16 bytes per node, whether or not it was released
+    public long estimatedBytes() {
+        return 64 + 29L * dist.length;
+    }
+
+    /** Cost to {@code target}, growing the tree as far as needed; infinity if unreachable. */
+    public synchronized double distanceTo(int target) {
+        grow(target);
+        return dist[target];
+    }
+
+    /** Nodes from the source to {@code target}, or an empty array if unreachable. */
+    public synchronized int[] pathTo(int target) {
+        grow(target);
+        if (dist[target] == Double.POSITIVE_INFINITY) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int at = target; at != -1; at = prev[at]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int at = target; at != -1; at = prev[at]) {
+            path[--length] = at;
+        }
+        return path;
+    }
+
+    /**
+     * Grows the tree until {@code target} is settled or known to be unreachable, unless {@code stop}
+     * trips first (it is polled once per settled node). Returns false if it stopped; the tree stays
+     * consistent and a later query resumes where this one left off.
+     */
+    public synchronized boolean reach(int target, BooleanSupplier stop) {
+        grow(target, stop);
+        return queue == null || settled[target];
+    }
+
+    /** Copy of the current labels: exact for settled nodes, upper bounds or infinity elsewhere. */
+    public synchronized double[] distances() {
+        return dist.clone();
+    }
+
+    private void grow(int target) {
+        grow(target, () -> false);
+    }
+
+    private void grow(int target, BooleanSupplier stop) {
+        while (queue != null && !settled[target] && !stop.getAsBoolean()) {
+            if (queue.isEmpty()) {
+                queue = null;
+                return;
+            }
+            int u = queue.poll();
+            settled[u] = true;
+            settledCount++;
+            double du = dist[u];
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                double alt = du + graph.arcWeight(a);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    prev[v] = u;
+                    queue.push(v, alt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ramalingam-Reps style repair for a batch of edge changes between the node pairs in
+     * {@code touchedPairs} (flat {a0, b0, a1, b1, ...}); {@code updated} is the graph after the
+     * changes. A tree edge that became longer or vanished detaches its child's subtree: those
+     * nodes are reset and re-seeded from their unaffected neighbours. A pair that became shorter
+     * seeds its far end. One Dijkstra pass from the seeds then fixes every label that changed,
+     * without visiting the rest of the tree. This tree is left untouched for queries in flight.
+     */
+    public synchronized Repair repair(CsrGraph updated, int[] touchedPairs, NodeQueue work) {
+        if (!isComplete()) {
+            throw new IllegalStateException("Only complete trees can be repaired");
+        }
+        if (updated.nodeCount() != dist.length || updated.hasNegativeEdges()) {
+            throw new IllegalArgumentException("Repair needs a graph of the same nodes with non-negative edge costs");
+        }
+        int n = dist.length;
+        double[] d = dist.clone();
+        int[] p = prev.clone();
+
+        // Tree edges that got longer or were removed
+        boolean[] affected = new boolean[n];
+        int[] affectedNodes = new int[n];
+        int affectedCount = 0;
+        int[][] children = null;
+        for (int i = 0; i < touchedPairs.length; i += 2) {
+            for (int side = 0; side < 2; side++) {
+                int a = touchedPairs[i + side];
+                int b = touchedPairs[i + 1 - side];
+                if (p[b] != a || affected[b] || d[a] + weight(updated, a, b) <= d[b]) {
+                    continue;
+                }
+                if (children == null) {
+                    children = children(p);
+                }
+                affectedCount = collectSubtree(b, children, affected, affectedNodes, affectedCount);
+            }
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            d[affectedNodes[i]] = Double.POSITIVE_INFINITY;
+            p[affectedNodes[i]] = -1;
+        }
+        for (int i = 0; i < affectedCount; i++) {
+            int w = affectedNodes[i];
+            for (int a = updated.firstArc(w); a < updated.endArc(w); a++) {
+                int x = updated.arcTarget(a);
+                if (!affected[x] && d[x] + updated.arcWeight(a) < d[w]) {
+                    d[w] = d[x] + updated.arcWeight(a);
+                    p[w] = x;
+                }
+            }
+            if (d[w] != Double.POSITIVE_INFINITY) {
+                work.push(w, d[w]);
+            }
+        }
+
+        // Pairs that got shorter or were added
+        for (int i = 0; i < touchedPairs.length; i += 2) {
+            for (int side = 0; side < 2; side++) {
+                int a = touchedPairs[i + side];
+                int b = touchedPairs[i + 1 - side];
+                double alt = d[a] + weight(updated, a, b);
+                if (alt < d[b]) {
+                    d[b] = alt;
+                    p[b] = a;
+                    work.push(b, alt);
+                }
+            }
+        }
+
+        int repaired = 0;
+        while (!work.isEmpty()) {
+            int u = work.poll();
+            repaired++;
+            for (int a = updated.firstArc(u); a < updated.endArc(u); a++) {
+                int v = updated.arcTarget(a);
+                double alt = d[u] + updated.arcWeight(a);
+                if (alt < d[v]) {
+                    d[v] = alt;
+                    p[v] = u;
+                    work.push(v, alt);
+                }
+            }
+        }
+        return new Repair(new ShortestPathTree(updated, source, d, p), affectedCount, repaired);
+    }
+
+    // Cheapest arc from a to b, or infinity if none is left
+    private static double weight(CsrGraph graph, int a, int b) {
+        double best = Double.POSITIVE_INFINITY;
+        for (int arc = graph.firstArc(a); arc < graph.endArc(a); arc++) {
+            if (graph.arcTarget(arc) == b && graph.arcWeight(arc) < best) {
+                best = graph.arcWeight(arc);
+            }
+        }
+        return best;
+    }
+
+    // Child lists of the predecessor tree as {offsets, nodes}
+    private static int[][] children(int[] prev) {
+        int n = prev.length;
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (prev[v] != -1) {
+                offsets[prev[v] + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] fill = offsets.clone();
+        int[] nodes = new int[n];
+        for (int v = 0; v < n; v++) {
+            if (prev[v] != -1) {
+                nodes[fill[prev[v]]++] = v;
+            }
+        }
+        return new int[][]{offsets, nodes};
+    }
+
+    private static int collectSubtree(int root, int[][] children, boolean[] affected, int[] out, int count) {
+        int[] offsets = children[0];
+        int[] nodes = children[1];
+        int head = count;
+        affected[root] = true;
+        out[count++] = root;
+        while (head < count) {
+            int u = out[head++];
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                int child = nodes[i];
+                if (!affected[child]) {
+                    affected[child] = true;
+                    out[count++] = child;
+                }
+            }
+        }
+        return count;
+    }
+
+    public static final class Repair {
+        private final ShortestPathTree tree;
+        private final int affectedNodes;
+        private final int repairedNodes;
+
+        private Repair(ShortestPathTree tree, int affectedNodes, int repairedNodes) {
+            this.tree = tree;
+            this.affectedNodes = affectedNodes;
+            this.repairedNodes = repairedNodes;
+        }
+
+        public ShortestPathTree tree() { return tree; }
+        // Nodes cut off by a longer or removed tree edge
+        public int affectedNodes() { return affectedNodes; }
+        // Nodes settled by the repair pass; a full recompute settles tree().settledCount()
+        public int repairedNodes() { return repairedNodes; }
+    }
+}
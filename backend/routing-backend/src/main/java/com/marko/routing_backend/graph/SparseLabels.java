@@ -0,0 +1,89 @@
+package com.marko.routing_backend.graph;
+
+/**
+ * Distance and predecessor labels for searches that touch only a small part of a large graph,
+ * kept in an open-addressing table sized by the nodes reached rather than by the graph.
+ */
+final class SparseLabels {
+    private int[] keys;        // node + 1, 0 for a free slot
+    private double[] dist;
+    private int[] prevNode;
+    private int[] prevEdge;
+    private int[] used;        // occupied slots, for O(size) clearing
+    private int size;
+    private int mask;
+
+    SparseLabels(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        dist = new double[capacity];
+        prevNode = new int[capacity];
+        prevEdge = new int[capacity];
+        used = new int[capacity / 2];
+        mask = capacity - 1;
+        size = 0;
+    }
+
+    private int slot(int node) {
+        int h = (node * 0x9E3779B9) & mask;
+        while (keys[h] != 0 && keys[h] != node + 1) {
+            h = (h + 1) & mask;
+        }
+        return h;
+    }
+
+    double dist(int node) {
+        int h = slot(node);
+        return keys[h] == 0 ? Double.POSITIVE_INFINITY : dist[h];
+    }
+
+    int prevNode(int node) {
+        int h = slot(node);
+        return keys[h] == 0 ? -1 : prevNode[h];
+    }
+
+    int prevEdge(int node) {
+        int h = slot(node);
+        return keys[h] == 0 ? -1 : prevEdge[h];
+    }
+
+    void set(int node, double value, int fromNode, int viaEdge) {
+        int h = slot(node);
+        if (keys[h] == 0) {
+            if (size == used.length) {
+                grow();
+                h = slot(node);
+            }
+            keys[h] = node + 1;
+            used[size++] = h;
+        }
+        dist[h] = value;
+        prevNode[h] = fromNode;
+        prevEdge[h] = viaEdge;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            keys[used[i]] = 0;
+        }
+        size = 0;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        double[] oldDist = dist;
+        int[] oldPrevNode = prevNode;
+        int[] oldPrevEdge = prevEdge;
+        int[] oldUsed = used;
+        int oldSize = size;
+        allocate(keys.length * 2);
+        for (int i = 0; i < oldSize; i++) {
+            int h = oldUsed[i];
+            set(oldKeys[h] - 1, oldDist[h], oldPrevNode[h], oldPrevEdge[h]);
+        }
+    }
+}
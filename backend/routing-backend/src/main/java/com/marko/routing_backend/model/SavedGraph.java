@@ -18,9 +18,25 @@ public class SavedGraph {
     @Column(nullable = false)
     private String name;
 
+    // Legacy JSON encoding; graphs registered since graphData was added leave it null
     @Column(columnDefinition = "TEXT")
     private String graphJson;
 
+    // GraphCodec binary encoding
+    @Lob
+    @Column(name = "graph_data")
+    private byte[] graphData;
+
+    // ContractionHierarchy overlay built from graphData; null until requested
+    @Lob
+    @Column(name = "hierarchy_data")
+    private byte[] hierarchyData;
+
+    // Landmarks distance tables for ALT; null until requested
+    @Lob
+    @Column(name = "landmark_data")
+    private byte[] landmarkData;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -34,4 +50,12 @@ public class SavedGraph {
 
     @Column(name = "edge_count")
     private Integer edgeCount;
+
+    // Bumped only when the edges change, unlike version, which every overlay save bumps as well;
+    // null on rows written before it was added
+    @Column(name = "edge_revision")
+    private Long edgeRevision;
+
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.AdmissionProperties;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.MatrixRequest;
+import com.marko.routing_backend.dto.TraceFormat;
+import com.marko.routing_backend.exception.AdmissionRejectedException;
+import com.marko.routing_backend.graph.CsrGraph;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Admits routing work against a shared budget of concurrent work units, estimated up front from
+ * graph size, algorithm and trace mode (roughly the arc relaxations and trace entries it will
+ * produce). Requests above {@code cheap-units} only get the heavy share of the budget, so a burst
+ * of Bellman-Ford runs cannot starve cheap Dijkstra queries. A request that does not fit waits up
+ * to {@code max-wait-millis} for running work to finish (503 after that); when {@code max-queued}
+ * requests are already waiting it is shed at once (429).
+ */
+@Service
+public class AdmissionControl {
+    private final AdmissionProperties properties;
+    private final GraphRegistryService graphRegistry;
+    private final RoutingMetrics metrics;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    private long inUse;
+    private int waiting;
+
+    public AdmissionControl(AdmissionProperties properties, GraphRegistryService graphRegistry, RoutingMetrics metrics) {
+        this.properties = properties;
+        this.graphRegistry = graphRegistry;
+        this.metrics = metrics;
+    }
+
+    public <T> T call(String algorithm, long cost, Supplier<T> work) {
+        Permit permit = acquire(algorithm, cost);
+        try {
+            return work.get();
+        } finally {
+            permit.close();
+        }
+    }
+
+    public Permit acquire(String algorithm, long cost) {
+        if (!properties.isEnabled()) {
+            return new Permit(0);
+        }
+        boolean heavy = cost > properties.getCheapUnits();
+        long limit = heavy ? heavyLimit() : properties.getBudgetUnits();
+        // Anything larger than its lane runs alone in it rather than never
+        long units = Math.max(1, Math.min(cost, limit));
+        lock.lock();
+        try {
+            if (inUse + units > limit) {
+                if (waiting >= properties.getMaxQueued()) {
+                    metrics.shed(algorithm, "queue-full");
+                    throw new AdmissionRejectedException("Server is at capacity; too many requests are waiting",
+                        true, properties.getRetryAfterSeconds());
+                }
+                waitFor(algorithm, units, limit);
+            }
+            inUse += units;
+            return new Permit(units);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void waitFor(String algorithm, long units, long limit) {
+        waiting++;
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxWaitMillis());
+            while (inUse + units > limit) {
+                if (nanos <= 0) {
+                    metrics.shed(algorithm, "timeout");
+                    throw new AdmissionRejectedException("Server is at capacity; no room for this " + algorithm
+                        + " request within " + properties.getMaxWaitMillis() + " ms", false, properties.getRetryAfterSeconds());
+                }
+                nanos = released.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for admission", e);
+        } finally {
+            waiting--;
+        }
+    }
+
+    private long heavyLimit() {
+        return (long) (properties.getBudgetUnits() * properties.getHeavyShare());
+    }
+
+    long inUse() {
+        lock.lock();
+        try {
+            return inUse;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Work units of one simulation or route; {@code traced} is false for result-only routes. */
+    public long estimate(String algorithm, GraphOperationRequest request, boolean traced) {
+        long[] size = graphSize(request.getGraphId(), request.getNodes(), request.getEdges());
+        long cost = searchCost(algorithm, size[0], size[1]);
+        if (traced) {
+            cost = add(cost, traceCost(request.getTraceFormat(), size[0], size[1]));
+        }
+        return cost;
+    }
+
+    // One early-stopping Dijkstra per source
+    public long estimate(MatrixRequest request) {
+        long[] size = graphSize(request.getGraphId(), request.getNodes(), request.getEdges());
+        return multiply(Math.max(1, size(request.getSources())), searchCost("dijkstra", size[0], size[1]));
+    }
+
+    // Contraction of a registered graph: a bounded witness search per neighbour pair of every node
+    public long estimateHierarchyBuild(long graphId) {
+        long[] size = graphSize(graphId, null, null);
+        return multiply(size[0] + size[1], 128);
+    }
+
+    // One full Dijkstra per landmark
+    public long estimateLandmarkBuild(long graphId) {
+        CsrGraph graph = graphRegistry.load(graphId).graph();
+        long landmarks = Math.max(1, graphRegistry.landmarkCount(graph));
+        return multiply(landmarks, searchCost("dijkstra", graph.nodeCount(), graph.edgeCount()));
+    }
+
+    // Edge patch: at worst every cached tree of the graph is recomputed in full
+    public long estimatePatch(long graphId) {
+        long[] size = graphSize(graphId, null, null);
+        long trees = Math.max(1, graphRegistry.cachedTrees(graphId));
+        return multiply(trees, searchCost("dijkstra", size[0], size[1]));
+    }
+
+    // {nodes, edges}; inline graphs are counted before they are validated or built
+    private long[] graphSize(Long graphId, List<?> nodes, List<?> edges) {
+        if (graphId != null) {
+            CsrGraph graph = graphRegistry.load(graphId).graph();
+            return new long[]{graph.nodeCount(), graph.edgeCount()};
+        }
+        return new long[]{size(nodes), size(edges)};
+    }
+
+    static long searchCost(String algorithm, long n, long m) {
+        long log = 64 - Long.numberOfLeadingZeros(n + 1);
+        switch (algorithm) {
+            case "bellman-ford":
+                return multiply(Math.max(n, 1), Math.max(m, 1));
+            case "ch":
+                return 64 * log * log;
+            default:
+                return multiply(n + m, log);
+        }
+    }
+
+    // Full traces snapshot every label at every step; delta traces carry about one entry per relaxation
+    static long traceCost(String traceFormat, long n, long m) {
+        TraceFormat format;
+        try {
+            format = TraceFormat.from(traceFormat);
+        } catch (IllegalArgumentException e) {
+            return 0;  // rejected by validation before any work is done
+        }
+        switch (format) {
+            case FULL:
+                return multiply(n, n);
+            case DELTA:
+                return multiply(4, n + m);
+            default:
+                return 0;
+        }
+    }
+
+    private static long size(List<?> list) {
+        return list == null ? 0 : list.size();
+    }
+
+    private static long add(long a, long b) {
+        long sum = a + b;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long multiply(long a, long b) {
+        return b != 0 && a > Long.MAX_VALUE / b ? Long.MAX_VALUE : a * b;
+    }
+
+    /** Units held by one admitted request; closing it returns them and wakes waiting requests. */
+    public final class Permit implements AutoCloseable {
+        private long units;
+
+        private Permit(long units) {
+            this.units = units;
+        }
+
+        @Override
+        public void close() {
+            lock.lock();
+            try {
+                if (units == 0) {
+                    return;
+                }
+                inUse -= units;
+                units = 0;
+                released.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.BulkheadProperties;
+import com.marko.routing_backend.exception.BulkheadFullException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * One bounded executor per algorithm, so CPU-heavy work of one kind (Bellman-Ford on a large
+ * graph) queues behind itself instead of taking the request threads every other endpoint needs.
+ * The calling request thread waits for the result; once an algorithm's threads are busy and its
+ * queue is full, further calls fail fast with {@link BulkheadFullException} (503 + Retry-After).
+ */
+@Service
+public class AlgorithmBulkheads {
+    private final BulkheadProperties properties;
+    private final Map<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+    public AlgorithmBulkheads(BulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    public <T> T call(String algorithm, Supplier<T> work) {
+        if (!properties.isEnabled()) {
+            return work.get();
+        }
+        Future<T> future;
+        try {
+            future = executors.computeIfAbsent(algorithm, this::newExecutor).submit(work::get);
+        } catch (RejectedExecutionException e) {
+            throw new BulkheadFullException(algorithm, properties.getRetryAfterSeconds());
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + algorithm, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private ThreadPoolExecutor newExecutor(String algorithm) {
+        BulkheadProperties.Limits limits = properties.getAlgorithms().get(algorithm);
+        int threads = limits != null && limits.getThreads() != null ? limits.getThreads() : properties.getThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+        int queueCapacity = limits != null && limits.getQueueCapacity() != null
+            ? limits.getQueueCapacity() : properties.getQueueCapacity();
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "bulkhead-" + algorithm + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        // A SynchronousQueue when no waiting is allowed, so rejection starts as soon as all threads are busy
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : new SynchronousQueue<>(),
+            factory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+    }
+}
@@ -0,0 +1,195 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.NodeQueue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+/**
+ * Point-to-point Dijkstra run from both ends at once. Since the graph is undirected the backward
+ * search is an ordinary search from the target. Every relaxed arc that reaches a node labelled by
+ * the other side offers a candidate path length mu; a side stops once its smallest queued key
+ * plus the other side's reaches mu, at which point no shorter s-t path can remain.
+ *
+ * <p>In sequential mode the side with the smaller queue head advances. In threaded mode the
+ * backward side runs on a pool thread and labels are mirrored into {@link AtomicLongArray}s so
+ * each side reads the other's current values; stale reads only delay the stop, never skip a path.
+ */
+final class BidirectionalSearch {
+    static final String FORWARD = "forward";
+    static final String BACKWARD = "backward";
+
+    private final CsrGraph graph;
+    private final Side forward;
+    private final Side backward;
+
+    private volatile double mu = Double.POSITIVE_INFINITY;
+    private int meeting = -1;
+    private BooleanSupplier stop = () -> false;
+    private volatile boolean stopped;
+
+    BidirectionalSearch(CsrGraph graph, int start, int end, boolean threaded, IntFunction<NodeQueue> queues) {
+        this.graph = graph;
+        this.forward = new Side(start, graph.nodeCount(), threaded, queues.apply(graph.nodeCount()));
+        this.backward = new Side(end, graph.nodeCount(), threaded, queues.apply(graph.nodeCount()));
+        if (start == end) {
+            offer(0, start);
+        }
+    }
+
+    double[] forwardDist() { return forward.dist; }
+    int[] forwardPrev() { return forward.prev; }
+    double[] backwardDist() { return backward.dist; }
+    int[] backwardPrev() { return backward.prev; }
+
+    void trace(TraceRecorder forwardTrace, TraceRecorder backwardTrace) {
+        forward.trace = forwardTrace;
+        backward.trace = backwardTrace;
+    }
+
+    // Polled before every settled node; once it fires both sides stop
+    void deadline(BooleanSupplier stop) {
+        this.stop = stop;
+    }
+
+    // Alternates between the sides, always advancing the one whose next key is smaller
+    void runSequential() {
+        while (!forward.queue.isEmpty() && !backward.queue.isEmpty()
+                && forward.queue.peekKey() + backward.queue.peekKey() < mu && !shouldStop()) {
+            if (forward.queue.peekKey() <= backward.queue.peekKey()) {
+                settleNext(forward, backward);
+            } else {
+                settleNext(backward, forward);
+            }
+        }
+    }
+
+    void runThreaded(ForkJoinPool pool) {
+        ForkJoinTask<?> task = pool.submit(() -> runSide(backward, forward));
+        runSide(forward, backward);
+        task.join();
+    }
+
+    private void runSide(Side self, Side other) {
+        while (!self.queue.isEmpty()) {
+            self.top = self.queue.peekKey();
+            if (self.top + other.top >= mu || shouldStop()) {
+                return;
+            }
+            settleNext(self, other);
+        }
+        self.top = Double.POSITIVE_INFINITY;
+    }
+
+    private void settleNext(Side self, Side other) {
+        int u = self.queue.poll();
+        self.settled++;
+        self.relaxed += graph.endArc(u) - graph.firstArc(u);
+        if (self.trace != null) {
+            self.trace.step(u);
+        }
+        double du = self.dist[u];
+        for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+            int v = graph.arcTarget(a);
+            double alt = du + graph.arcWeight(a);
+            if (alt < self.dist[v]) {
+                self.label(v, alt, u);
+                self.queue.push(v, alt);
+                self.pushes++;
+                if (self.trace != null) {
+                    self.trace.changed(v);
+                    self.trace.visited(graph.arcEdge(a));
+                }
+            }
+            double through = alt + other.label(v);
+            if (through < mu) {
+                offer(through, v);
+            }
+        }
+    }
+
+    private synchronized void offer(double length, int node) {
+        if (length < mu) {
+            mu = length;
+            meeting = node;
+        }
+    }
+
+    private boolean shouldStop() {
+        if (!stopped && stop.getAsBoolean()) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    boolean stopped() { return stopped; }
+    boolean found() { return meeting != -1; }
+    double cost() { return mu; }
+    int settledNodes() { return forward.settled + backward.settled; }
+    long relaxedArcs() { return forward.relaxed + backward.relaxed; }
+    long queuePushes() { return forward.pushes + backward.pushes; }
+
+    // Forward predecessors up to the meeting node, then backward predecessors down to the target
+    List<Integer> path() {
+        List<Integer> path = new ArrayList<>();
+        for (int at = meeting; at != -1; at = forward.prev[at]) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        for (int at = backward.prev[meeting]; at != -1; at = backward.prev[at]) {
+            path.add(at);
+        }
+        return path;
+    }
+
+    private static final class Side {
+        final double[] dist;
+        final int[] prev;
+        final AtomicLongArray shared;  // threaded mode: dist as raw long bits, readable by the other side
+        final NodeQueue queue;
+        TraceRecorder trace;
+        volatile double top;
+        int settled;
+        long relaxed;
+        long pushes = 1;  // the origin
+
+        Side(int origin, int n, boolean threaded, NodeQueue queue) {
+            this.dist = new double[n];
+            this.prev = new int[n];
+            this.queue = queue;
+            Arrays.fill(dist, Double.POSITIVE_INFINITY);
+            Arrays.fill(prev, -1);
+            if (threaded) {
+                shared = new AtomicLongArray(n);
+                long infinity = Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+                for (int i = 0; i < n; i++) {
+                    shared.lazySet(i, infinity);
+                }
+            } else {
+                shared = null;
+            }
+            label(origin, 0, -1);
+            queue.push(origin, 0);
+        }
+
+        void label(int node, double value, int from) {
+            dist[node] = value;
+            prev[node] = from;
+            if (shared != null) {
+                shared.set(node, Double.doubleToRawLongBits(value));
+            }
+        }
+
+        double label(int node) {
+            return shared == null ? dist[node] : Double.longBitsToDouble(shared.get(node));
+        }
+    }
+}
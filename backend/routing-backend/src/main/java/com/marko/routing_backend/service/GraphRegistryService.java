@@ -0,0 +1,296 @@
+package com.marko.routing_backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marko.routing_backend.config.RoutingProperties;
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.EdgePatchRequest;
+import com.marko.routing_backend.dto.SavedGraphDto;
+import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.exception.ResourceNotFoundException;
+import com.marko.routing_backend.graph.ContractionHierarchy;
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.EdgePatch;
+import com.marko.routing_backend.graph.GraphCodec;
+import com.marko.routing_backend.graph.GraphColumns;
+import com.marko.routing_backend.graph.Landmarks;
+import com.marko.routing_backend.graph.NodeQueue;
+import com.marko.routing_backend.model.SavedGraph;
+import com.marko.routing_backend.repository.SavedGraphRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Graphs uploaded once and routed on by id. The nodes and edges are persisted in the
+ * {@link GraphCodec} binary format; the built {@link CsrGraph} is kept in the weight-bounded
+ * "savedGraphs" cache and decoded from the stored bytes again after eviction or restart.
+ * Rows written before the binary format still load from their JSON. Contraction hierarchies and
+ * ALT landmark tables built on request are persisted next to the graph and travel with it
+ * through the cache. Patching edges drops both, since they only hold for the old costs.
+ */
+@Service
+public class GraphRegistryService {
+    public static final String CACHE_NAME = "savedGraphs";
+
+    private final SavedGraphRepository repository;
+    private final GraphService graphService;
+    private final ObjectMapper objectMapper;
+    private final RoutingProperties properties;
+    private final ShortestPathTreeCache treeCache;
+    private final Cache cache;
+
+    public GraphRegistryService(SavedGraphRepository repository, GraphService graphService, ObjectMapper objectMapper,
+                                RoutingProperties properties, ShortestPathTreeCache treeCache, CacheManager cacheManager) {
+        this.repository = repository;
+        this.graphService = graphService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.treeCache = treeCache;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Missing cache " + CACHE_NAME);
+    }
+
+    @Transactional
+    public SavedGraphDto register(SavedGraphDto request) {
+        graphService.validateSize(request.getNodes() == null ? 0 : request.getNodes().size(),
+            request.getEdges() == null ? 0 : request.getEdges().size(), properties.getMaxNodes(), properties.getMaxEdges());
+        graphService.validateGraph(request.getNodes(), request.getEdges());
+        String name = request.getName();
+        if (name == null || name.isBlank()) {
+            name = "graph-" + System.currentTimeMillis();
+        } else if (repository.existsByName(name)) {
+            throw new GraphValidationException("A graph named '" + name + "' already exists", "name");
+        }
+
+        GraphColumns columns = GraphColumns.fromDtos(request.getNodes(), request.getEdges());
+
+        SavedGraph entity = new SavedGraph();
+        entity.setName(name);
+        entity.setDescription(request.getDescription());
+        entity.setGraphData(GraphCodec.encode(columns, properties.isCompressSavedGraphs()));
+        entity.setNodeCount(columns.nodeCount());
+        entity.setEdgeCount(columns.edgeCount());
+        entity.setEdgeRevision(0L);
+        entity = repository.save(entity);
+
+        cache.put(entity.getId(), new RegisteredGraph(entity.getId(), edgeRevision(entity), columns.toGraph()));
+        return summary(entity);
+    }
+
+    @Transactional(readOnly = true)
+    public List<SavedGraphDto> list() {
+        return repository.findByOrderByCreatedAtDesc().stream()
+            .map(GraphRegistryService::summary)
+            .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public SavedGraphDto get(long id) {
+        SavedGraph entity = find(id);
+        GraphColumns columns = columns(entity);
+        SavedGraphDto dto = summary(entity);
+        dto.setNodes(columns.toNodes());
+        dto.setEdges(columns.toEdges());
+        return dto;
+    }
+
+    @Transactional
+    public void delete(long id) {
+        repository.delete(find(id));
+        cache.evict(id);
+    }
+
+    // Applies edge changes as a new version. Only the save runs in a transaction (its version check
+    // turns a concurrent write into a conflict); the graph cache and the shortest-path trees are
+    // updated after it has committed, so a failed save leaves both untouched
+    public Map<String, Object> patchEdges(long id, EdgePatchRequest request) {
+        SavedGraph entity = find(id);
+        RegisteredGraph before = load(id);
+        GraphColumns columns = columns(entity);
+        EdgePatch patch = toPatch(request);
+        if (patch.size() == 0) {
+            throw new GraphValidationException("Edge patch contains no changes", "update");
+        }
+        graphService.validateSize(columns.nodeCount(), columns.edgeCount() + patch.addedCount(),
+            properties.getMaxNodes(), properties.getMaxEdges());
+        GraphColumns patched;
+        try {
+            patched = patch.apply(columns);
+        } catch (IllegalArgumentException e) {
+            throw new GraphValidationException(e.getMessage(), "edges");
+        }
+
+        entity.setGraphJson(null);
+        entity.setGraphData(GraphCodec.encode(patched, properties.isCompressSavedGraphs()));
+        entity.setEdgeCount(patched.edgeCount());
+        entity.setEdgeRevision(edgeRevision(entity) + 1);
+        entity.setHierarchyData(null);
+        entity.setLandmarkData(null);
+        entity = repository.saveAndFlush(entity);
+        RegisteredGraph after = new RegisteredGraph(id, edgeRevision(entity), patched.toGraph());
+        cache.put(id, after);
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("graphId", id);
+        stats.put("version", entity.getVersion());
+        stats.put("edgeCount", patched.edgeCount());
+        stats.put("changes", patch.size());
+        stats.putAll(treeCache.repair(before, after, patch.touchedPairs(columns),
+            n -> NodeQueue.create(properties.getHeap(), n, properties.getHeapArity())));
+        return stats;
+    }
+
+    // Preprocesses the graph for /routing/ch/route; saving the overlay bumps the version but not the
+    // edge revision, so cached trees and routes stay valid. No
+    // transaction is held during the build, only by the final save, whose version check turns an
+    // edge patch that landed meanwhile into a conflict instead of storing a stale overlay
+    public Map<String, Object> buildHierarchy(long id) {
+        SavedGraph entity = find(id);
+        RegisteredGraph current = load(id);
+        CsrGraph graph = current.graph();
+        long started = System.nanoTime();
+        ContractionHierarchy hierarchy;
+        try {
+            hierarchy = ContractionHierarchy.build(graph, ForkJoinPool.commonPool());
+        } catch (IllegalArgumentException e) {
+            throw new GraphValidationException(e.getMessage(), "edges");
+        }
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+
+        entity.setHierarchyData(hierarchy.encode());
+        entity = repository.saveAndFlush(entity);
+        cache.put(id, new RegisteredGraph(id, edgeRevision(entity), graph, hierarchy, current.landmarks()));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("graphId", id);
+        stats.put("version", entity.getVersion());
+        stats.put("shortcuts", hierarchy.shortcutCount());
+        stats.put("buildMillis", buildMillis);
+        return stats;
+    }
+
+    // Landmark distance tables for /routing/alt, capped at altMaxTableBytes. Like buildHierarchy,
+    // only the final save runs in a transaction
+    public Map<String, Object> buildLandmarks(long id) {
+        SavedGraph entity = find(id);
+        RegisteredGraph current = load(id);
+        CsrGraph graph = current.graph();
+        int count = landmarkCount(graph);
+        if (count < 1) {
+            throw new GraphValidationException("Graph " + id + " is too large for a landmark table of "
+                + properties.getAltMaxTableBytes() + " bytes", "altMaxTableBytes");
+        }
+        long started = System.nanoTime();
+        Landmarks landmarks;
+        try {
+            landmarks = Landmarks.build(graph, count, ForkJoinPool.commonPool());
+        } catch (IllegalArgumentException e) {
+            throw new GraphValidationException(e.getMessage(), "edges");
+        }
+        long buildMillis = (System.nanoTime() - started) / 1_000_000;
+
+        entity.setLandmarkData(landmarks.encode());
+        entity = repository.saveAndFlush(entity);
+        cache.put(id, new RegisteredGraph(id, edgeRevision(entity), graph, current.hierarchy(), landmarks));
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("graphId", id);
+        stats.put("version", entity.getVersion());
+        stats.put("landmarks", landmarks.nodes());
+        stats.put("tableBytes", landmarks.estimatedBytes());
+        stats.put("buildMillis", buildMillis);
+        return stats;
+    }
+
+    // Cached shortest-path trees of the graph's current edge revision, i.e. what a patch would repair
+    public int cachedTrees(long id) {
+        return treeCache.treeCount(load(id));
+    }
+
+    // Landmarks a table for this graph can hold, at most altLandmarks; 0 if not even one fits
+    public int landmarkCount(CsrGraph graph) {
+        long fit = properties.getAltMaxTableBytes() / (4L * Math.max(1, graph.nodeCount()));
+        return (int) Math.min(properties.getAltLandmarks(), fit);
+    }
+
+    // Built graph for routing; only a cache miss touches the database
+    public RegisteredGraph load(long id) {
+        RegisteredGraph cached = cache.get(id, RegisteredGraph.class);
+        if (cached != null) {
+            return cached;
+        }
+        SavedGraph entity = find(id);
+        CsrGraph graph = columns(entity).toGraph();
+        ContractionHierarchy hierarchy = entity.getHierarchyData() == null
+            ? null : ContractionHierarchy.decode(graph, entity.getHierarchyData());
+        Landmarks landmarks = entity.getLandmarkData() == null
+            ? null : Landmarks.decode(graph, entity.getLandmarkData());
+        RegisteredGraph loaded = new RegisteredGraph(id, edgeRevision(entity), graph, hierarchy, landmarks);
+        cache.put(id, loaded);
+        return loaded;
+    }
+
+    private static EdgePatch toPatch(EdgePatchRequest request) {
+        List<EdgePatchRequest.CostUpdate> update = request.getUpdate() == null ? List.of() : request.getUpdate();
+        List<Integer> remove = request.getRemove() == null ? List.of() : request.getRemove();
+        List<EdgeDto> add = request.getAdd() == null ? List.of() : request.getAdd();
+        if (update.stream().anyMatch(Objects::isNull) || remove.stream().anyMatch(Objects::isNull)
+                || add.stream().anyMatch(Objects::isNull)) {
+            throw new GraphValidationException("Edge patch entries cannot be null", "edges");
+        }
+        return new EdgePatch(
+            update.stream().mapToInt(EdgePatchRequest.CostUpdate::getIndex).toArray(),
+            update.stream().mapToDouble(EdgePatchRequest.CostUpdate::getCost).toArray(),
+            remove.stream().mapToInt(Integer::intValue).toArray(),
+            add.stream().mapToInt(EdgeDto::getStart).toArray(),
+            add.stream().mapToInt(EdgeDto::getEnd).toArray(),
+            add.stream().mapToDouble(EdgeDto::getCost).toArray());
+    }
+
+    private SavedGraph find(long id) {
+        return repository.findById(id)
+            .orElseThrow(() -> new ResourceNotFoundException("Graph not found: " + id));
+    }
+
+    // Rows written before edge revisions were added start at 0
+    private static long edgeRevision(SavedGraph entity) {
+        return entity.getEdgeRevision() == null ? 0 : entity.getEdgeRevision();
+    }
+
+    private static SavedGraphDto summary(SavedGraph entity) {
+        SavedGraphDto dto = new SavedGraphDto();
+        dto.setId(entity.getId());
+        dto.setName(entity.getName());
+        dto.setDescription(entity.getDescription());
+        dto.setNodeCount(entity.getNodeCount());
+        dto.setEdgeCount(entity.getEdgeCount());
+        dto.setVersion(entity.getVersion());
+        dto.setCreatedAt(entity.getCreatedAt());
+        dto.setUpdatedAt(entity.getUpdatedAt());
+        return dto;
+    }
+
+    private GraphColumns columns(SavedGraph entity) {
+        if (entity.getGraphData() != null) {
+            return GraphCodec.decode(entity.getGraphData());
+        }
+        SavedGraphDto stored = readJson(entity);
+        return GraphColumns.fromDtos(stored.getNodes(), stored.getEdges());
+    }
+
+    private SavedGraphDto readJson(SavedGraph entity) {
+        try {
+            return objectMapper.readValue(entity.getGraphJson(), SavedGraphDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored graph " + entity.getId() + " is unreadable", e);
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package com.marko.routing_backend.service;
 
+import com.marko.routing_backend.dto.EdgeColumnList;
 import com.marko.routing_backend.dto.EdgeDto;
 import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.NodeDto;
 import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.graph.Components;
+import com.marko.routing_backend.graph.CsrGraph;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -15,33 +19,15 @@ public class GraphService {
     }
 
     public boolean isConnected(List<EdgeDto> edges, int nodeCount) {
-        // Create adjacency list
-        Map<Integer, List<Integer>> adj = new HashMap<>();
-        for (int i = 0; i < nodeCount; i++) {
-            adj.put(i, new ArrayList<>());
-        }
-
-        // Build undirected graph (both directions for each edge)
-        for (EdgeDto e : edges) {
-            adj.get(e.getStart()).add(e.getEnd());
-            adj.get(e.getEnd()).add(e.getStart());
-        }
-
-        // Run DFS from first node
-        Set<Integer> visited = new HashSet<>();
-        dfs(0, visited, adj);
+        return isConnected(CsrGraph.undirected(nodeCount, edges));
+    }
 
-        // Graph is connected if we visited all nodes
-        return visited.size() == nodeCount;
+    public boolean isConnected(CsrGraph graph) {
+        return components(graph).count() <= 1;
     }
 
-    private void dfs(int node, Set<Integer> visited, Map<Integer, List<Integer>> adj) {
-        visited.add(node);
-        for (int neighbor : adj.get(node)) {
-            if (!visited.contains(neighbor)) {
-                dfs(neighbor, visited, adj);
-            }
-        }
+    public Components components(CsrGraph graph) {
+        return Components.of(graph);
     }
 
     public double getMinimumCost(int node1, int node2, List<EdgeDto> edges) {
@@ -54,31 +40,73 @@ public class GraphService {
     }
 
     public void validateRequest(GraphOperationRequest request) {
-        if (request.getNodes() == null || request.getNodes().isEmpty()) {
+        validateGraph(request.getNodes(), request.getEdges());
+        validateQuery(request, request.getNodes().size());
+    }
+
+    // Runs before anything proportional to the graph is allocated
+    public void validateSize(int nodeCount, int edgeCount, int maxNodes, int maxEdges) {
+        if (nodeCount > maxNodes) {
+            throw new GraphValidationException("Graph has " + nodeCount + " nodes; the limit is " + maxNodes, "nodes");
+        }
+        if (edgeCount > maxEdges) {
+            throw new GraphValidationException("Graph has " + edgeCount + " edges; the limit is " + maxEdges, "edges");
+        }
+    }
+
+    // Structural checks only, shared by ad-hoc requests and graph registration
+    public void validateGraph(List<NodeDto> nodes, List<EdgeDto> edges) {
+        if (nodes == null || nodes.isEmpty()) {
             throw new GraphValidationException("Graph must have nodes");
         }
-        if (request.getEdges() == null) {
+        if (edges == null) {
             throw new GraphValidationException("Edges list cannot be null");
         }
+
+        // Validate edges reference existing node indices
+        int nodeCount = nodes.size();
+        if (edges instanceof EdgeColumnList columns && columns.checkedNodeCount() == nodeCount) {
+            // Checked while the request body was parsed
+            if (columns.problem() != null) {
+                throw new GraphValidationException(columns.problem());
+            }
+            return;
+        }
+        for (EdgeDto e : edges) {
+            if (e == null) {
+                throw new GraphValidationException("Edge entry cannot be null");
+            }
+            if (e.getStart() < 0 || e.getStart() >= nodeCount || e.getEnd() < 0 || e.getEnd() >= nodeCount) {
+                throw new GraphValidationException("Edge references invalid node index: start=" + e.getStart() + ", end=" + e.getEnd());
+            }
+        }
+    }
+
+    // Checks the start/end nodes of a request against a graph of the given size
+    public void validateQuery(GraphOperationRequest request, int nodeCount) {
         if (request.getStartNode() == null) {
             throw new GraphValidationException("Start node is required");
         }
-        if (request.getStartNode() < 0 || request.getStartNode() >= request.getNodes().size()) {
+        if (request.getStartNode() < 0 || request.getStartNode() >= nodeCount) {
             throw new GraphValidationException("Invalid start node index");
         }
 
         // NOTE: controller already enforces presence of endNode for endpoints that require it
         // so we avoid requiring endNode here to keep validation reusable for multiple flows.
+        if (request.getEndNode() != null && (request.getEndNode() < 0 || request.getEndNode() >= nodeCount)) {
+            throw new GraphValidationException("Invalid end node index");
+        }
+    }
 
-        // Validate edges reference existing node indices
-        int nodeCount = request.getNodes().size();
-        for (EdgeDto e : request.getEdges()) {
-            if (e == null) {
-                throw new GraphValidationException("Edge entry cannot be null");
-            }
-            if (e.getStart() < 0 || e.getStart() >= nodeCount || e.getEnd() < 0 || e.getEnd() >= nodeCount) {
-                throw new GraphValidationException("Edge references invalid node index: start=" + e.getStart() + ", end=" + e.getEnd());
+    // Node index lists such as matrix sources and targets
+    public void validateNodeList(List<Integer> nodes, int nodeCount, String field) {
+        if (nodes == null || nodes.isEmpty()) {
+            throw new GraphValidationException(field + " must list at least one node", field);
+        }
+        for (Integer node : nodes) {
+            if (node == null || node < 0 || node >= nodeCount) {
+                throw new GraphValidationException("Invalid node index in " + field + ": " + node, field);
             }
         }
     }
-}
\ No newline at end of file
+}
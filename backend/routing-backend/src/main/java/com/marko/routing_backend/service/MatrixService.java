@@ -0,0 +1,79 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.RoutingProperties;
+import com.marko.routing_backend.dto.MatrixRequest;
+import com.marko.routing_backend.dto.MatrixResponse;
+import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.DistanceMatrix;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cost matrices for /routing/matrix. All requests share one pool of matrix-threads workers, so
+ * a burst of large matrices queues up instead of taking every core from single-route traffic.
+ */
+@Service
+public class MatrixService {
+    private final GraphService graphService;
+    private final GraphRegistryService graphRegistry;
+    private final RoutingProperties properties;
+    private final ForkJoinPool pool;
+
+    public MatrixService(GraphService graphService, GraphRegistryService graphRegistry, RoutingProperties properties) {
+        this.graphService = graphService;
+        this.graphRegistry = graphRegistry;
+        this.properties = properties;
+        int threads = properties.getMatrixThreads() > 0
+            ? properties.getMatrixThreads() : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    public MatrixResponse compute(MatrixRequest request) {
+        CsrGraph graph;
+        if (request.getGraphId() != null) {
+            graph = graphRegistry.load(request.getGraphId()).graph();
+        } else {
+            graphService.validateSize(request.getNodes() == null ? 0 : request.getNodes().size(),
+                request.getEdges() == null ? 0 : request.getEdges().size(), properties.getMaxNodes(), properties.getMaxEdges());
+            graphService.validateGraph(request.getNodes(), request.getEdges());
+            graph = CsrGraph.undirected(request.getNodes(), request.getEdges());
+        }
+        graphService.validateNodeList(request.getSources(), graph.nodeCount(), "sources");
+        graphService.validateNodeList(request.getTargets(), graph.nodeCount(), "targets");
+        long cells = (long) request.getSources().size() * request.getTargets().size();
+        if (cells > properties.getMatrixMaxCells()) {
+            throw new GraphValidationException("Matrix of " + cells + " cells exceeds the limit of "
+                + properties.getMatrixMaxCells(), "targets");
+        }
+        if (graph.hasNegativeEdges()) {
+            throw new GraphValidationException("Distance matrices cannot handle negative edges", "edges");
+        }
+
+        long started = System.nanoTime();
+        double[] costs = DistanceMatrix.compute(graph, toArray(request.getSources()), toArray(request.getTargets()), pool);
+        long computeMillis = (System.nanoTime() - started) / 1_000_000;
+        return new MatrixResponse(request.getSources().size(), request.getTargets().size(), encode(costs), computeMillis);
+    }
+
+    static String encode(double[] costs) {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * costs.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(costs);
+        return Base64.getEncoder().encodeToString(buffer.array());
+    }
+
+    private static int[] toArray(List<Integer> nodes) {
+        return nodes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,42 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.graph.ContractionHierarchy;
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.Landmarks;
+
+/**
+ * A registered graph as held in memory: the prebuilt {@link CsrGraph} together with the id and
+ * edge revision it was built from, so anything derived from it can be keyed by both. Building the
+ * contraction hierarchy or landmark tables (null until then) leaves the revision unchanged, since
+ * routes and shortest-path trees do not depend on them.
+ */
+public final class RegisteredGraph {
+    private final long id;
+    private final long edgeRevision;
+    private final CsrGraph graph;
+    private final ContractionHierarchy hierarchy;
+    private final Landmarks landmarks;
+
+    RegisteredGraph(long id, long edgeRevision, CsrGraph graph) {
+        this(id, edgeRevision, graph, null, null);
+    }
+
+    RegisteredGraph(long id, long edgeRevision, CsrGraph graph, ContractionHierarchy hierarchy, Landmarks landmarks) {
+        this.id = id;
+        this.edgeRevision = edgeRevision;
+        this.graph = graph;
+        this.hierarchy = hierarchy;
+        this.landmarks = landmarks;
+    }
+
+    public long id() { return id; }
+    public long edgeRevision() { return edgeRevision; }
+    public CsrGraph graph() { return graph; }
+    public ContractionHierarchy hierarchy() { return hierarchy; }
+    public Landmarks landmarks() { return landmarks; }
+
+    public long estimatedBytes() {
+        return graph.estimatedBytes() + (hierarchy == null ? 0 : hierarchy.estimatedBytes())
+            + (landmarks == null ? 0 : landmarks.estimatedBytes());
+    }
+}
@@ -0,0 +1,198 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.dto.*;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Memoizes routing results in the "routeCalculations" cache. Keys are a SHA-256 over a canonical
+ * encoding of everything that influences the result: algorithm, result kind, start/end, trace
+ * options, node coordinates and the edge list, so re-posting the same graph is a cache hit.
+ * Requests on a registered graph hash its id and edge revision instead of the graph itself.
+ */
+@Service
+public class RouteCache {
+    public static final String CACHE_NAME = "routeCalculations";
+
+    private final Cache cache;
+    private final GraphRegistryService graphRegistry;
+
+    public RouteCache(CacheManager cacheManager, GraphRegistryService graphRegistry) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Missing cache " + CACHE_NAME);
+        this.graphRegistry = graphRegistry;
+    }
+
+    public <T> T get(String algorithm, GraphOperationRequest request, Supplier<T> loader) {
+        if (request.getGraphId() != null && request.getStartNode() != null) {
+            RegisteredGraph graph = graphRegistry.load(request.getGraphId());
+            return lookup(key(algorithm, request, graph), loader);
+        }
+        // Requests that will fail validation are not worth hashing
+        if (request.getNodes() == null || request.getEdges() == null || request.getStartNode() == null) {
+            return loader.get();
+        }
+        return lookup(key(algorithm, request), loader);
+    }
+
+    // Get-then-put rather than cache.get(key, Callable), which would wrap validation errors
+    @SuppressWarnings("unchecked")
+    private <T> T lookup(String key, Supplier<T> loader) {
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value = loader.get();
+        // A search cut short by its deadline may well finish next time
+        if (!(value instanceof GraphOperationResponse response && Boolean.TRUE.equals(response.getPartial()))) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    static String key(String algorithm, GraphOperationRequest request, RegisteredGraph graph) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        putQuery(digest, buffer, algorithm, request);
+        buffer.put((byte) 1).putLong(graph.id()).putLong(graph.edgeRevision());
+        buffer.flip();
+        digest.update(buffer);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static String key(String algorithm, GraphOperationRequest request) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        putQuery(digest, buffer, algorithm, request);
+        buffer.put((byte) 0);
+        buffer.flip();
+        digest.update(buffer);
+        digest.update(graphKey(request).getBytes(StandardCharsets.US_ASCII));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Identity of a request's inline graph alone, for caches that are not keyed by a full query.
+    // Hashed once per request: the route key and the shortest-path tree key share it
+    public static String graphKey(GraphOperationRequest request) {
+        if (request.getGraphFingerprint() == null) {
+            request.setGraphFingerprint(graphKey(request.getNodes(), request.getEdges()));
+        }
+        return request.getGraphFingerprint();
+    }
+
+    private static String graphKey(List<NodeDto> nodes, List<EdgeDto> edges) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        putGraph(digest, buffer, nodes, edges);
+        buffer.flip();
+        digest.update(buffer);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void putGraph(MessageDigest digest, ByteBuffer buffer, List<NodeDto> nodes, List<EdgeDto> edges) {
+        if (nodes instanceof NodeColumnList nodeColumns && edges instanceof EdgeColumnList edgeColumns) {
+            putColumns(digest, buffer, nodeColumns, edgeColumns);
+            return;
+        }
+        buffer.putInt(nodes.size());
+        for (NodeDto node : nodes) {
+            flushIfFull(digest, buffer, 16);
+            buffer.putDouble(node == null ? 0 : node.getX());
+            buffer.putDouble(node == null ? 0 : node.getY());
+        }
+
+        buffer.putInt(edges.size());
+        for (EdgeDto edge : edges) {
+            flushIfFull(digest, buffer, 16);
+            if (edge == null) {
+                buffer.putInt(-1).putInt(-1).putDouble(0);
+                continue;
+            }
+            buffer.putInt(edge.getStart());
+            buffer.putInt(edge.getEnd());
+            buffer.putDouble(edge.getCost());
+        }
+    }
+
+    // Same bytes as putGraph produces for the equivalent DTO lists, without creating the DTOs
+    private static void putColumns(MessageDigest digest, ByteBuffer buffer, NodeColumnList nodes, EdgeColumnList edges) {
+        buffer.putInt(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            flushIfFull(digest, buffer, 16);
+            buffer.putDouble(nodes.isNull(i) ? 0 : nodes.x(i));
+            buffer.putDouble(nodes.isNull(i) ? 0 : nodes.y(i));
+        }
+
+        buffer.putInt(edges.size());
+        for (int i = 0; i < edges.size(); i++) {
+            flushIfFull(digest, buffer, 16);
+            if (edges.isNull(i)) {
+                buffer.putInt(-1).putInt(-1).putDouble(0);
+                continue;
+            }
+            buffer.putInt(edges.start(i));
+            buffer.putInt(edges.end(i));
+            buffer.putDouble(edges.cost(i));
+        }
+    }
+
+    private static void putQuery(MessageDigest digest, ByteBuffer buffer, String algorithm, GraphOperationRequest request) {
+        digest.update(algorithm.getBytes(StandardCharsets.UTF_8));
+        buffer.putInt(request.getStartNode());
+        buffer.putInt(request.getEndNode() == null ? -1 : request.getEndNode());
+        buffer.putInt(TraceFormat.from(request.getTraceFormat()).ordinal());
+        buffer.putInt(request.getKeyframeInterval() == null ? 0 : request.getKeyframeInterval());
+    }
+
+    private static void flushIfFull(MessageDigest digest, ByteBuffer buffer, int needed) {
+        if (buffer.remaining() < needed) {
+            buffer.flip();
+            digest.update(buffer);
+            buffer.clear();
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // Rough retained size of a cached value, used as its cache weight
+    public static int estimateBytes(Object value) {
+        long bytes = 64;
+        if (value instanceof GraphOperationResponse response) {
+            bytes += mapBytes(response.getFinalDistances()) + listBytes(response.getShortestPath());
+            if (response.getSteps() != null) {
+                for (SimulationStep step : response.getSteps()) {
+                    bytes += 48 + mapBytes(step.getDistances()) + mapBytes(step.getPredecessors());
+                    bytes += step.getVisitedEdgeIndices() == null ? 0 : 16 + 4L * step.getVisitedEdgeIndices().length;
+                }
+            }
+        } else if (value instanceof DijkstraResult result) {
+            bytes += mapBytes(result.getDistances()) + listBytes(result.getPath()) + listBytes(result.getEdgeIndices());
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    // HashMap entry plus boxed key and value
+    private static long mapBytes(Map<?, ?> map) {
+        return map == null ? 0 : 48 + 64L * map.size();
+    }
+
+    private static long listBytes(List<?> list) {
+        return list == null ? 0 : 24 + 20L * list.size();
+    }
+}
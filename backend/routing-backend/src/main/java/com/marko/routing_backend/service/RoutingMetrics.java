@@ -0,0 +1,85 @@
+package com.marko.routing_backend.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters for the routing hot path, tagged by algorithm and graph-size bucket:
+ * a {@code routing.phase} timer per phase, and counters of the work a search did. Everything is
+ * recorded once per request from locals the search already keeps, never per node or arc.
+ */
+@Component
+public class RoutingMetrics {
+    public static final String VALIDATE = "validate";
+    public static final String CONNECTIVITY = "connectivity";
+    public static final String BUILD = "build";
+    public static final String SEARCH = "search";
+    public static final String SERIALIZE = "serialize";
+
+    private final MeterRegistry registry;
+
+    public RoutingMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public Timer phase(String algorithm, String phase, int nodeCount) {
+        return Timer.builder("routing.phase")
+            .description("Time spent in one phase of a routing request")
+            .tag("algorithm", algorithm)
+            .tag("phase", phase)
+            .tag("size", sizeBucket(nodeCount))
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    // Zero means the algorithm has no such work (Bellman-Ford settles nothing), so no meter is made
+    public void work(String algorithm, int nodeCount, long settledNodes, long relaxedArcs, long heapPushes) {
+        String size = sizeBucket(nodeCount);
+        increment("routing.nodes.settled", algorithm, size, settledNodes);
+        increment("routing.edges.relaxed", algorithm, size, relaxedArcs);
+        increment("routing.heap.pushes", algorithm, size, heapPushes);
+    }
+
+    // Encoded size of one streamed trace; the summary's total doubles as a byte counter
+    public void traceBytes(String algorithm, int nodeCount, long bytes) {
+        DistributionSummary.builder("routing.trace.bytes")
+            .description("Encoded bytes of the steps streamed for one simulation")
+            .baseUnit("bytes")
+            .tag("algorithm", algorithm)
+            .tag("size", sizeBucket(nodeCount))
+            .publishPercentileHistogram()
+            .register(registry)
+            .record(bytes);
+    }
+
+    // A request turned away by admission control; reason is queue-full (429) or timeout (503)
+    public void shed(String algorithm, String reason) {
+        Counter.builder("routing.admission.rejected")
+            .tag("algorithm", algorithm)
+            .tag("reason", reason)
+            .register(registry)
+            .increment();
+    }
+
+    static String sizeBucket(int nodeCount) {
+        if (nodeCount <= 1_000) {
+            return "1k";
+        }
+        if (nodeCount <= 10_000) {
+            return "10k";
+        }
+        if (nodeCount <= 100_000) {
+            return "100k";
+        }
+        return nodeCount <= 1_000_000 ? "1m" : "large";
+    }
+
+    private void increment(String name, String algorithm, String size, long amount) {
+        if (amount > 0) {
+            Counter.builder(name).tag("algorithm", algorithm).tag("size", size).register(registry).increment(amount);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.marko.routing_backend.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Cooperative stop signal for one search. It trips at a deadline, or as soon as the thread that
+ * created it is interrupted, which is how a cancelled bulkhead task is stopped. Search loops poll
+ * {@link #expired()} once per iteration; the clock and interrupt flag are only read every
+ * {@value #CHECK_INTERVAL} polls. Callers that already poll at a coarse, fixed amount of work
+ * (Bellman-Ford edge blocks, parallel node ranges) use {@link #checkNow()} instead.
+ */
+final class SearchDeadline implements BooleanSupplier {
+    private static final int CHECK_INTERVAL = 1024;
+
+    private final long timeoutNanos;  // 0 = no time limit
+    private final long deadlineNanos;
+    private final Thread owner;  // polls may come from helper or ForkJoin threads
+    private int polls;  // racy between the threads of a bidirectional search, which only shifts the next check
+    private volatile String reason;
+
+    SearchDeadline(long timeoutNanos) {
+        this.timeoutNanos = timeoutNanos;
+        this.deadlineNanos = System.nanoTime() + timeoutNanos;
+        this.owner = Thread.currentThread();
+    }
+
+    static SearchDeadline ofSeconds(int seconds) {
+        return new SearchDeadline(seconds <= 0 ? 0 : TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    boolean expired() {
+        if (reason != null) {
+            return true;
+        }
+        if ((polls++ & (CHECK_INTERVAL - 1)) != 0) {
+            return false;
+        }
+        return checkNow();
+    }
+
+    // Reads the clock and interrupt flag on every call
+    boolean checkNow() {
+        if (reason != null) {
+            return true;
+        }
+        if (owner.isInterrupted()) {
+            reason = "Search was cancelled";
+        } else if (timeoutNanos > 0 && System.nanoTime() - deadlineNanos >= 0) {
+            reason = "Search stopped at the time limit of " + TimeUnit.NANOSECONDS.toMillis(timeoutNanos) + " ms";
+        }
+        return reason != null;
+    }
+
+    @Override
+    public boolean getAsBoolean() { return expired(); }
+
+    // Why the search stopped, or null while it may continue
+    String reason() { return reason; }
+}
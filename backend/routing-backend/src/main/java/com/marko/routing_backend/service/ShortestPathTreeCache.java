@@ -0,0 +1,105 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.NodeQueue;
+import com.marko.routing_backend.graph.ShortestPathTree;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Shortest-path trees kept in the weight-bounded "shortestPathTrees" cache, keyed by graph
+ * identity and source: id and edge revision for registered graphs, a content hash for inline ones.
+ * Result-only Dijkstra queries with a repeated start node reuse (and keep growing) one tree.
+ * When a registered graph's edges are patched its complete trees are repaired, not dropped.
+ */
+@Service
+public class ShortestPathTreeCache {
+    public static final String CACHE_NAME = "shortestPathTrees";
+
+    private final Cache cache;
+
+    public ShortestPathTreeCache(CacheManager cacheManager) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(CACHE_NAME), "Missing cache " + CACHE_NAME);
+    }
+
+    public static String graphKey(RegisteredGraph graph) {
+        return "g" + graph.id() + "@" + graph.edgeRevision();
+    }
+
+    public ShortestPathTree tree(String graphKey, CsrGraph graph, int source, IntFunction<NodeQueue> queues) {
+        String key = graphKey + "/" + source;
+        ShortestPathTree cached = cache.get(key, ShortestPathTree.class);
+        if (cached != null) {
+            return cached;
+        }
+        ShortestPathTree tree = new ShortestPathTree(graph, source, queues.apply(graph.nodeCount()));
+        cache.put(key, tree);
+        return tree;
+    }
+
+    public int treeCount(RegisteredGraph graph) {
+        String prefix = graphKey(graph) + "/";
+        int count = 0;
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            for (Object key : nativeCache.asMap().keySet()) {
+                if (key instanceof String name && name.startsWith(prefix)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Moves the trees of {@code before} over to {@code after}: complete trees are repaired for the
+     * changed node pairs, partially grown ones are dropped and regrow on their next query.
+     */
+    public Map<String, Object> repair(RegisteredGraph before, RegisteredGraph after, int[] touchedPairs,
+                                      IntFunction<NodeQueue> queues) {
+        String prefix = graphKey(before) + "/";
+        int repairedTrees = 0;
+        int droppedTrees = 0;
+        long affectedNodes = 0;
+        long repairedNodes = 0;
+        long recomputeNodes = 0;
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+            List<Object> keys = new ArrayList<>();
+            for (Object key : nativeCache.asMap().keySet()) {
+                if (key instanceof String name && name.startsWith(prefix)) {
+                    keys.add(key);
+                }
+            }
+            boolean repairable = !after.graph().hasNegativeEdges();
+            for (Object key : keys) {
+                ShortestPathTree tree = cache.get(key, ShortestPathTree.class);
+                cache.evict(key);
+                if (tree == null || !repairable || !tree.isComplete()) {
+                    droppedTrees++;
+                    continue;
+                }
+                ShortestPathTree.Repair repair = tree.repair(after.graph(), touchedPairs, queues.apply(after.graph().nodeCount()));
+                cache.put(graphKey(after) + "/" + tree.source(), repair.tree());
+                repairedTrees++;
+                affectedNodes += repair.affectedNodes();
+                repairedNodes += repair.repairedNodes();
+                recomputeNodes += repair.tree().settledCount();
+            }
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("repairedTrees", repairedTrees);
+        stats.put("droppedTrees", droppedTrees);
+        stats.put("affectedNodes", affectedNodes);
+        stats.put("repairedNodes", repairedNodes);
+        stats.put("fullRecomputeNodes", recomputeNodes);
+        return stats;
+    }
+}
@@ -1,45 +1,210 @@
 package com.marko.routing_backend.service;
 
+import com.marko.routing_backend.config.RoutingProperties;
 import com.marko.routing_backend.dto.*;
+import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.exception.SearchTimeoutException;
+import com.marko.routing_backend.graph.BellmanFord;
+import com.marko.routing_backend.graph.ContractionHierarchy;
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.Landmarks;
+import com.marko.routing_backend.graph.NegativeCycle;
+import com.marko.routing_backend.graph.NodeQueue;
+import com.marko.routing_backend.graph.ShortestPathTree;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.IntToDoubleFunction;
+import java.util.stream.Collectors;
 
 @Service
 public class SimulationService {
+    // What orders the best-first queue besides the distance so far
+    private enum Guide {
+        NONE("dijkstra"), COORDINATES("astar"), LANDMARKS("alt");
+
+        private final String algorithm;
+
+        Guide(String algorithm) { this.algorithm = algorithm; }
+    }
+
     private final GraphService graphService;
+    private final GraphRegistryService graphRegistry;
+    private final RoutingProperties properties;
+    private final ShortestPathTreeCache treeCache;
+    private final RoutingMetrics metrics;
 
-    public SimulationService(GraphService graphService) {
+    public SimulationService(GraphService graphService, GraphRegistryService graphRegistry, RoutingProperties properties,
+                             ShortestPathTreeCache treeCache, RoutingMetrics metrics) {
         this.graphService = graphService;
+        this.graphRegistry = graphRegistry;
+        this.properties = properties;
+        this.treeCache = treeCache;
+        this.metrics = metrics;
     }
 
-    public GraphOperationResponse simulateDijkstra(GraphOperationRequest request) {
+    // Registered graphs come prebuilt from the registry; inline graphs are validated and built here
+    private CsrGraph resolveGraph(GraphOperationRequest request, String algorithm) {
+        if (request.getGraphId() != null) {
+            CsrGraph graph = graphRegistry.load(request.getGraphId()).graph();
+            graphService.validateQuery(request, graph.nodeCount());
+            return graph;
+        }
+        int nodeCount = request.getNodes() == null ? 0 : request.getNodes().size();
+        graphService.validateSize(nodeCount, request.getEdges() == null ? 0 : request.getEdges().size(),
+            properties.getMaxNodes(), properties.getMaxEdges());
+        metrics.phase(algorithm, RoutingMetrics.VALIDATE, nodeCount).record(() -> graphService.validateRequest(request));
+        return metrics.phase(algorithm, RoutingMetrics.BUILD, nodeCount).record(() -> CsrGraph.fromRequest(request));
+    }
+
+    // The checks of resolveGraph without building the graph or recording phase timers, for callers
+    // that must reject bad input before the simulation runs; returns the node count
+    public int checkRequest(GraphOperationRequest request) {
+        if (request.getGraphId() != null) {
+            int nodeCount = graphRegistry.load(request.getGraphId()).graph().nodeCount();
+            graphService.validateQuery(request, nodeCount);
+            return nodeCount;
+        }
+        int nodeCount = request.getNodes() == null ? 0 : request.getNodes().size();
+        graphService.validateSize(nodeCount, request.getEdges() == null ? 0 : request.getEdges().size(),
+            properties.getMaxNodes(), properties.getMaxEdges());
         graphService.validateRequest(request);
+        return nodeCount;
+    }
 
-        if (graphService.hasNegativeEdges(request.getEdges())) {
-            return GraphOperationResponse.error("Dijkstra's algorithm cannot handle negative edges");
+    public GraphOperationResponse simulateDijkstra(GraphOperationRequest request) {
+        List<SimulationStep> steps = new ArrayList<>();
+        GraphOperationResponse response = simulateDijkstra(request, steps::add);
+        if (response.isSuccess() || Boolean.TRUE.equals(response.getPartial())) {
+            response.setSteps(steps);
         }
+        return response;
+    }
 
-        if (!graphService.isConnected(request.getEdges(), request.getNodes().size())) {
-            // Return a response that the tests and UI expect for disconnected graphs
-            return GraphOperationResponse.error("No path exists between the selected nodes");
+    // Steps are handed to the sink as they are produced; the returned response carries no steps
+    public GraphOperationResponse simulateDijkstra(GraphOperationRequest request, Consumer<SimulationStep> sink) {
+        return bestFirstSearch(request, sink, Guide.NONE);
+    }
+
+    public GraphOperationResponse simulateAStar(GraphOperationRequest request) {
+        List<SimulationStep> steps = new ArrayList<>();
+        GraphOperationResponse response = simulateAStar(request, steps::add);
+        if (response.isSuccess() || Boolean.TRUE.equals(response.getPartial())) {
+            response.setSteps(steps);
+        }
+        return response;
+    }
+
+    public GraphOperationResponse simulateAStar(GraphOperationRequest request, Consumer<SimulationStep> sink) {
+        return bestFirstSearch(request, sink, Guide.COORDINATES);
+    }
+
+    public GraphOperationResponse simulateAlt(GraphOperationRequest request) {
+        List<SimulationStep> steps = new ArrayList<>();
+        GraphOperationResponse response = simulateAlt(request, steps::add);
+        if (response.isSuccess() || Boolean.TRUE.equals(response.getPartial())) {
+            response.setSteps(steps);
+        }
+        return response;
+    }
+
+    public GraphOperationResponse simulateAlt(GraphOperationRequest request, Consumer<SimulationStep> sink) {
+        return bestFirstSearch(request, sink, Guide.LANDMARKS);
+    }
+
+    // ALT needs the precomputed tables of a registered graph
+    public Landmarks landmarks(GraphOperationRequest request) {
+        if (request.getGraphId() == null) {
+            throw new GraphValidationException("ALT routing requires a registered graphId", "graphId");
+        }
+        RegisteredGraph registered = graphRegistry.load(request.getGraphId());
+        if (registered.landmarks() == null) {
+            throw new GraphValidationException("Graph " + registered.id()
+                + " has no landmarks; POST /api/graphs/" + registered.id() + "/landmarks first", "graphId");
+        }
+        return registered.landmarks();
+    }
+
+    public GraphOperationResponse simulateBidirectional(GraphOperationRequest request) {
+        List<SimulationStep> steps = new ArrayList<>();
+        GraphOperationResponse response = simulateBidirectional(request, steps::add);
+        if (response.isSuccess() || Boolean.TRUE.equals(response.getPartial())) {
+            response.setSteps(steps);
+        }
+        return response;
+    }
+
+    public GraphOperationResponse simulateBidirectional(GraphOperationRequest request, Consumer<SimulationStep> sink) {
+        CsrGraph graph = resolveGraph(request, "bidirectional");
+        TraceFormat traceFormat = TraceFormat.from(request.getTraceFormat());
+
+        if (graph.hasNegativeEdges()) {
+            return GraphOperationResponse.error("Dijkstra's algorithm cannot handle negative edges");
         }
 
-        int n = request.getNodes().size();
         int start = request.getStartNode();
         int end = request.getEndNode();
 
-        // Build adjacency list
-        Map<Integer, List<EdgeDto>> adj = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            adj.put(i, new ArrayList<>());
+        // Threads only pay off on large graphs, and steps must reach the sink in order
+        boolean threaded = properties.isBidirectionalThreads() && traceFormat == TraceFormat.NONE
+            && graph.arcCount() >= properties.getParallelEdgeThreshold();
+        long searchStart = System.nanoTime();
+        SearchDeadline deadline = newDeadline();
+        BidirectionalSearch search = new BidirectionalSearch(graph, start, end, threaded, this::newQueue);
+        search.deadline(deadline);
+        if (threaded) {
+            search.runThreaded(ForkJoinPool.commonPool());
+        } else {
+            int interval = keyframeInterval(request);
+            search.trace(
+                new TraceRecorder(traceFormat, interval, search.forwardDist(), search.forwardPrev(), false, sink, BidirectionalSearch.FORWARD),
+                new TraceRecorder(traceFormat, interval, search.backwardDist(), search.backwardPrev(), false, sink, BidirectionalSearch.BACKWARD));
+            search.runSequential();
         }
-        for (EdgeDto e : request.getEdges()) {
-            adj.get(e.getStart()).add(e);
-            // For undirected graph, add reverse edge
-            adj.get(e.getEnd()).add(new EdgeDto(e.getEnd(), e.getStart(), e.getCost()));
+        recordSearch("bidirectional", graph, searchStart, search.settledNodes(), search.relaxedArcs(), search.queuePushes());
+
+        if (search.stopped()) {
+            return stopped(deadline, traceFormat, search.forwardDist(), search.settledNodes());
+        }
+        if (!search.found()) {
+            return GraphOperationResponse.error("No path exists between the selected nodes");
         }
 
+        // Distances are those of the forward search, i.e. from the start node
+        GraphOperationResponse response = new GraphOperationResponse();
+        response.setSuccess(true);
+        response.setTraceFormat(traceFormat.value());
+        response.setShortestPath(search.path());
+        response.setTotalCost(search.cost());
+        response.setFinalDistances(snapshotDistances(search.forwardDist()));
+        response.setSettledNodes(search.settledNodes());
+        return response;
+    }
+
+    // Dijkstra, or A* when the queue is ordered by dist + a lower bound on the rest: a straight-line
+    // estimate from coordinates, or ALT's landmark triangle inequality
+    private GraphOperationResponse bestFirstSearch(GraphOperationRequest request, Consumer<SimulationStep> sink, Guide guide) {
+        CsrGraph graph = resolveGraph(request, guide.algorithm);
+        Landmarks landmarks = guide == Guide.LANDMARKS ? landmarks(request) : null;
+        TraceFormat traceFormat = TraceFormat.from(request.getTraceFormat());
+
+        if (graph.hasNegativeEdges()) {
+            return GraphOperationResponse.error(guide == Guide.NONE
+                ? "Dijkstra's algorithm cannot handle negative edges"
+                : (guide == Guide.COORDINATES ? "A*" : "ALT") + " cannot handle negative edges");
+        }
+
+        int n = graph.nodeCount();
+        int start = request.getStartNode();
+        int end = request.getEndNode();
+        IntToDoubleFunction estimate = guide == Guide.LANDMARKS ? landmarks.towards(end) : straightLine(graph, guide, end);
+
+        long searchStart = System.nanoTime();
+        SearchDeadline deadline = newDeadline();
+
         // Initialize distances and predecessors
         double[] dist = new double[n];
         int[] prev = new int[n];
@@ -48,152 +213,366 @@ public class SimulationService {
         dist[start] = 0;
 
         // Priority queue for Dijkstra
-        PriorityQueue<int[]> pq = new PriorityQueue<>(Comparator.comparingDouble(a -> dist[a[0]]));
-        pq.offer(new int[]{start});
+        NodeQueue pq = newQueue(n);
+        pq.push(start, 0);
 
-        List<SimulationStep> steps = new ArrayList<>();
-        List<Integer> visitedEdges = new ArrayList<>();
+        TraceRecorder trace = new TraceRecorder(traceFormat, keyframeInterval(request), dist, prev, false, sink);
+        int settled = 0;
+        long relaxed = 0;
+        long pushes = 1;
+
+        while (!pq.isEmpty() && !deadline.expired()) {
+            int u = pq.poll();
+            settled++;
 
-        while (!pq.isEmpty()) {
-            int u = pq.poll()[0];
-            
             // Record this step
-            SimulationStep step = new SimulationStep();
-            step.setCurrentNode(u);
-            step.setVisitedEdgeIndices(visitedEdges.stream().mapToInt(Integer::intValue).toArray());
-            
-            Map<Integer, Double> currentDist = new HashMap<>();
-            Map<Integer, Integer> currentPrev = new HashMap<>();
-            for (int i = 0; i < n; i++) {
-                currentDist.put(i, dist[i]);
-                currentPrev.put(i, prev[i]);
-            }
-            step.setDistances(currentDist);
-            step.setPredecessors(currentPrev);
-            steps.add(step);
+            trace.step(u);
 
             if (u == end) break;
 
-            for (EdgeDto edge : adj.get(u)) {
-                int v = edge.getEnd();
-                double alt = dist[u] + edge.getCost();
+            relaxed += graph.endArc(u) - graph.firstArc(u);
+            for (int a = graph.firstArc(u); a < graph.endArc(u); a++) {
+                int v = graph.arcTarget(a);
+                double alt = dist[u] + graph.arcWeight(a);
                 if (alt < dist[v]) {
                     dist[v] = alt;
                     prev[v] = u;
-                    pq.offer(new int[]{v});
-                    
-                    // Find and record edge index for animation
-                    int edgeIndex = request.getEdges().indexOf(
-                        request.getEdges().stream()
-                            .filter(e -> (e.getStart() == u && e.getEnd() == v) || 
-                                       (e.getStart() == v && e.getEnd() == u))
-                            .findFirst()
-                            .get()
-                    );
-                    visitedEdges.add(edgeIndex);
+                    pq.push(v, estimate == null ? alt : alt + estimate.applyAsDouble(v));
+                    pushes++;
+
+                    // Record the relaxed edge for animation
+                    trace.changed(v);
+                    trace.visited(graph.arcEdge(a));
                 }
             }
         }
+        recordSearch(guide.algorithm, graph, searchStart, settled, relaxed, pushes);
+        if (deadline.reason() != null) {
+            return stopped(deadline, traceFormat, dist, settled);
+        }
 
-        // Build shortest path
-        List<Integer> path = new ArrayList<>();
-        if (dist[end] != Double.POSITIVE_INFINITY) {
-            for (int at = end; at != -1; at = prev[at]) {
-                path.add(0, at);
-            }
+        if (dist[end] == Double.POSITIVE_INFINITY) {
+            // Return a response that the tests and UI expect for disconnected graphs
+            return GraphOperationResponse.error("No path exists between the selected nodes");
         }
 
         // Build final response
         GraphOperationResponse response = new GraphOperationResponse();
         response.setSuccess(true);
-        response.setSteps(steps);
-        response.setShortestPath(path);
+        response.setTraceFormat(traceFormat.value());
+        response.setShortestPath(buildPath(prev, dist, end));
         response.setTotalCost(dist[end]);
-        
-        Map<Integer, Double> finalDist = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            finalDist.put(i, dist[i]);
-        }
-        response.setFinalDistances(finalDist);
+        response.setFinalDistances(snapshotDistances(dist));
+        response.setSettledNodes(settled);
 
         return response;
     }
 
-    public GraphOperationResponse simulateBellmanFord(GraphOperationRequest request) {
-        graphService.validateRequest(request);
-        
-        int n = request.getNodes().size();
-        int start = request.getStartNode();
+    // The estimate never exceeds the cost of any edge it spans (costPerDistance is the minimum
+    // cost/length ratio), so it is consistent and every node is still settled at most once.
+    // The scale is nudged down so rounding cannot push it past an edge cost.
+    private static IntToDoubleFunction straightLine(CsrGraph graph, Guide guide, int end) {
+        double scale = guide == Guide.COORDINATES && graph.hasCoordinates() ? graph.costPerDistance() * (1 - 1e-9) : 0;
+        if (scale <= 0) {
+            return null;
+        }
+        double targetX = graph.x(end);
+        double targetY = graph.y(end);
+        return v -> scale * Math.hypot(graph.x(v) - targetX, graph.y(v) - targetY);
+    }
 
-        // Initialize distances and predecessors
-        Map<Integer, Double> distances = new HashMap<>();
-        Map<Integer, Integer> predecessors = new HashMap<>();
+    public GraphOperationResponse simulateBellmanFord(GraphOperationRequest request) {
         List<SimulationStep> steps = new ArrayList<>();
-        List<Integer> visitedEdges = new ArrayList<>();
+        GraphOperationResponse response = simulateBellmanFord(request, steps::add);
+        if (response.isSuccess() || Boolean.TRUE.equals(response.getPartial())) {
+            response.setSteps(steps);
+        }
+        return response;
+    }
 
-        // Initialize all distances to infinity except start
-        for (int i = 0; i < n; i++) {
-            distances.put(i, Double.POSITIVE_INFINITY);
-            predecessors.put(i, null);
+    public GraphOperationResponse simulateBellmanFord(GraphOperationRequest request, Consumer<SimulationStep> sink) {
+        CsrGraph graph = resolveGraph(request, "bellman-ford");
+        TraceFormat traceFormat = TraceFormat.from(request.getTraceFormat());
+
+        // Any reachable negative edge is already a negative two-cycle in an undirected graph
+        NegativeCycle negativeEdge = NegativeCycle.findNegativeEdge(graph, request.getStartNode());
+        if (negativeEdge != null) {
+            return negativeCycleError(negativeEdge);
+        }
+        if (traceFormat == TraceFormat.NONE) {
+            return bellmanFordResult(graph, request);
         }
-        distances.put(start, 0.0);
+
+        int n = graph.nodeCount();
+        int m = graph.edgeCount();
+        int start = request.getStartNode();
+        long searchStart = System.nanoTime();
+        SearchDeadline deadline = newDeadline();
+
+        // Initialize all distances to infinity except start
+        double[] dist = new double[n];
+        int[] prev = new int[n];
+        int[] prevEdge = new int[n];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        Arrays.fill(prev, -1);
+        Arrays.fill(prevEdge, -1);
+        dist[start] = 0;
+
+        TraceRecorder trace = new TraceRecorder(traceFormat, keyframeInterval(request), dist, prev, true, sink);
 
         // Record initial state
-        SimulationStep initial = new SimulationStep();
-        initial.setCurrentNode(start);
-        initial.setDistances(new HashMap<>(distances));
-        initial.setPredecessors(new HashMap<>(predecessors));
-        initial.setVisitedEdgeIndices(new int[0]);
-        steps.add(initial);
-
-        // Iterate |V|-1 times
-        for (int i = 0; i < n-1; i++) {
-            for (EdgeDto edge : request.getEdges()) {
-                int u = edge.getStart();
-                int v = edge.getEnd();
-                double cost = edge.getCost();
-
-                if (distances.get(u) + cost < distances.get(v)) {
-                    distances.put(v, distances.get(u) + cost);
-                    predecessors.put(v, u);
-                    
+        trace.step(start);
+
+        // Iterate at most |V|-1 times; a pass without changes records no steps, so stop there
+        boolean changed = true;
+        long relaxed = 0;
+        for (int i = 0; i < n-1 && changed && deadline.reason() == null; i++) {
+            changed = false;
+            relaxed += 2L * m;
+            for (int edge = 0; edge < m && !deadline.expired(); edge++) {
+                int u = graph.edgeStart(edge);
+                int v = graph.edgeEnd(edge);
+                double cost = graph.edgeCost(edge);
+
+                if (dist[u] + cost < dist[v]) {
+                    dist[v] = dist[u] + cost;
+                    prev[v] = u;
+                    prevEdge[v] = edge;
+                    changed = true;
+
                     // Record this step
-                    SimulationStep step = new SimulationStep();
-                    step.setCurrentNode(v);
-                    visitedEdges.add(request.getEdges().indexOf(edge));
-                    step.setVisitedEdgeIndices(visitedEdges.stream().mapToInt(Integer::intValue).toArray());
-                    step.setDistances(new HashMap<>(distances));
-                    step.setPredecessors(new HashMap<>(predecessors));
-                    steps.add(step);
+                    trace.changed(v);
+                    trace.visited(edge);
+                    trace.step(v);
                 }
 
                 // For undirected graph, also try reverse
-                if (distances.get(v) + cost < distances.get(u)) {
-                    distances.put(u, distances.get(v) + cost);
-                    predecessors.put(u, v);
-                    
-                    SimulationStep step = new SimulationStep();
-                    step.setCurrentNode(u);
-                    visitedEdges.add(request.getEdges().indexOf(edge));
-                    step.setVisitedEdgeIndices(visitedEdges.stream().mapToInt(Integer::intValue).toArray());
-                    step.setDistances(new HashMap<>(distances));
-                    step.setPredecessors(new HashMap<>(predecessors));
-                    steps.add(step);
+                if (dist[v] + cost < dist[u]) {
+                    dist[u] = dist[v] + cost;
+                    prev[u] = v;
+                    prevEdge[u] = edge;
+                    changed = true;
+
+                    trace.changed(u);
+                    trace.visited(edge);
+                    trace.step(u);
                 }
             }
         }
 
-        // Check for negative cycles
-        for (EdgeDto edge : request.getEdges()) {
-            if (distances.get(edge.getStart()) + edge.getCost() < distances.get(edge.getEnd())) {
-                return GraphOperationResponse.error("Graph contains negative cycles");
+        recordSearch("bellman-ford", graph, searchStart, 0, relaxed, 0);
+        if (deadline.reason() != null) {
+            return stopped(deadline, traceFormat, dist, null);
+        }
+
+        // Check for negative cycles in both directions; relaxing the offending edge once more
+        // guarantees its endpoint leads back onto the cycle through the predecessors
+        for (int edge = 0; edge < m; edge++) {
+            int u = graph.edgeStart(edge);
+            int v = graph.edgeEnd(edge);
+            double cost = graph.edgeCost(edge);
+            if (dist[u] + cost < dist[v] || dist[v] + cost < dist[u]) {
+                int to = dist[u] + cost < dist[v] ? v : u;
+                prev[to] = to == v ? u : v;
+                prevEdge[to] = edge;
+                return negativeCycleError(NegativeCycle.fromPredecessors(prev, prevEdge, to));
             }
         }
 
         GraphOperationResponse response = new GraphOperationResponse();
         response.setSuccess(true);
-        response.setSteps(steps);
-        response.setFinalDistances(distances);
+        response.setTraceFormat(traceFormat.value());
+        response.setFinalDistances(snapshotDistances(dist));
+        if (request.getEndNode() != null) {
+            response.setShortestPath(buildPath(prev, dist, request.getEndNode()));
+            response.setTotalCost(dist[request.getEndNode()]);
+        }
         return response;
     }
-}
\ No newline at end of file
+
+    private GraphOperationResponse bellmanFordResult(CsrGraph graph, GraphOperationRequest request) {
+        BellmanFord.Mode mode = properties.getBellmanFordMode();
+        if (mode == BellmanFord.Mode.PARALLEL && graph.arcCount() < properties.getParallelEdgeThreshold()) {
+            // Forking is not worth it on small graphs
+            mode = BellmanFord.Mode.PASSES;
+        }
+        long searchStart = System.nanoTime();
+        SearchDeadline deadline = newDeadline();
+        BellmanFord.Result result = BellmanFord.run(graph, request.getStartNode(), mode, ForkJoinPool.commonPool(),
+            deadline::checkNow);
+        recordSearch("bellman-ford", graph, searchStart, 0, result.relaxedArcs(), 0);
+        if (result.isStopped()) {
+            return stopped(deadline, TraceFormat.NONE, result.dist(), null);
+        }
+        if (result.hasNegativeCycle()) {
+            return negativeCycleError(result.negativeCycle());
+        }
+
+        GraphOperationResponse response = new GraphOperationResponse();
+        response.setSuccess(true);
+        response.setTraceFormat(TraceFormat.NONE.value());
+        response.setFinalDistances(snapshotDistances(result.dist()));
+        if (request.getEndNode() != null) {
+            response.setShortestPath(buildPath(result.prev(), result.dist(), request.getEndNode()));
+            response.setTotalCost(result.dist()[request.getEndNode()]);
+        }
+        return response;
+    }
+
+    private static GraphOperationResponse negativeCycleError(NegativeCycle cycle) {
+        GraphOperationResponse response = GraphOperationResponse.error("Graph contains negative cycles");
+        if (cycle != null) {
+            response.setNegativeCycle(Arrays.stream(cycle.nodes()).boxed().collect(Collectors.toList()));
+            response.setNegativeCycleEdges(Arrays.stream(cycle.edges()).boxed().collect(Collectors.toList()));
+        }
+        return response;
+    }
+
+    // Result-only execution: same algorithms, but no SimulationStep is ever allocated.
+    // Dijkstra answers from a cached shortest-path tree of the start node, grown only as far as needed.
+    // Growth stops at the deadline; the tree is kept, so a retry resumes it instead of starting over.
+    public DijkstraResult routeDijkstra(GraphOperationRequest request) {
+        request.setTraceFormat(TraceFormat.NONE.value());
+        CsrGraph graph;
+        String graphKey;
+        if (request.getGraphId() != null) {
+            RegisteredGraph registered = graphRegistry.load(request.getGraphId());
+            graph = registered.graph();
+            graphService.validateQuery(request, graph.nodeCount());
+            graphKey = ShortestPathTreeCache.graphKey(registered);
+        } else {
+            graph = resolveGraph(request, "dijkstra");
+            graphKey = RouteCache.graphKey(request);
+        }
+        if (graph.hasNegativeEdges()) {
+            throw new GraphValidationException("Dijkstra's algorithm cannot handle negative edges");
+        }
+        long searchStart = System.nanoTime();
+        ShortestPathTree tree = treeCache.tree(graphKey, graph, request.getStartNode(), this::newQueue);
+        int settledBefore = tree.settledCount();
+        SearchDeadline deadline = newDeadline();
+        boolean reached = tree.reach(request.getEndNode(), deadline);
+        recordSearch("dijkstra", graph, searchStart, tree.settledCount() - settledBefore, 0, 0);
+        if (!reached) {
+            throw new SearchTimeoutException(deadline.reason());
+        }
+        int[] path = tree.pathTo(request.getEndNode());
+        if (path.length == 0) {
+            throw new GraphValidationException("No path exists between the selected nodes");
+        }
+        // Only the path's labels: they are settled, and copying the whole tree would make a hit O(n)
+        Map<Integer, Double> distances = new LinkedHashMap<>();
+        for (int node : path) {
+            distances.put(node, tree.distanceTo(node));
+        }
+        return new DijkstraResult(Arrays.stream(path).boxed().collect(Collectors.toList()),
+            tree.distanceTo(request.getEndNode()), distances);
+    }
+
+    public DijkstraResult routeAStar(GraphOperationRequest request) {
+        request.setTraceFormat(TraceFormat.NONE.value());
+        return toResult(simulateAStar(request, step -> { }));
+    }
+
+    public DijkstraResult routeAlt(GraphOperationRequest request) {
+        request.setTraceFormat(TraceFormat.NONE.value());
+        return toResult(simulateAlt(request, step -> { }));
+    }
+
+    public DijkstraResult routeBidirectional(GraphOperationRequest request) {
+        request.setTraceFormat(TraceFormat.NONE.value());
+        return toResult(simulateBidirectional(request, step -> { }));
+    }
+
+    public DijkstraResult routeBellmanFord(GraphOperationRequest request) {
+        request.setTraceFormat(TraceFormat.NONE.value());
+        return toResult(simulateBellmanFord(request, step -> { }));
+    }
+
+    // Registered graphs only: answered from the prebuilt hierarchy, with the input edge of every hop
+    public DijkstraResult routeContractionHierarchy(GraphOperationRequest request) {
+        if (request.getGraphId() == null) {
+            throw new GraphValidationException("Contraction hierarchy routing requires a registered graphId", "graphId");
+        }
+        RegisteredGraph registered = graphRegistry.load(request.getGraphId());
+        graphService.validateQuery(request, registered.graph().nodeCount());
+        ContractionHierarchy hierarchy = registered.hierarchy();
+        if (hierarchy == null) {
+            throw new GraphValidationException("Graph " + registered.id()
+                + " has no contraction hierarchy; POST /api/graphs/" + registered.id() + "/hierarchy first", "graphId");
+        }
+        int end = request.getEndNode();
+        long searchStart = System.nanoTime();
+        ContractionHierarchy.Route route = hierarchy.route(request.getStartNode(), end);
+        recordSearch("ch", registered.graph(), searchStart, 0, 0, 0);
+        if (route == null) {
+            throw new GraphValidationException("No path exists between the selected nodes");
+        }
+        return new DijkstraResult(
+            Arrays.stream(route.nodes()).boxed().collect(Collectors.toList()),
+            route.cost(),
+            null,
+            Arrays.stream(route.edges()).boxed().collect(Collectors.toList()));
+    }
+
+    private static DijkstraResult toResult(GraphOperationResponse response) {
+        if (Boolean.TRUE.equals(response.getPartial())) {
+            throw new SearchTimeoutException(response.getError());
+        }
+        if (!response.isSuccess()) {
+            throw new GraphValidationException(response.getError());
+        }
+        return new DijkstraResult(response.getShortestPath(), response.getTotalCost(), response.getFinalDistances());
+    }
+
+    private static List<Integer> buildPath(int[] prev, double[] dist, int end) {
+        List<Integer> path = new ArrayList<>();
+        if (dist[end] != Double.POSITIVE_INFINITY) {
+            for (int at = end; at != -1; at = prev[at]) {
+                path.add(at);
+            }
+            Collections.reverse(path);
+        }
+        return path;
+    }
+
+    private SearchDeadline newDeadline() {
+        return SearchDeadline.ofSeconds(properties.getTimeoutSeconds());
+    }
+
+    // What a search reached before its deadline or cancellation; the caller has the steps so far
+    private static GraphOperationResponse stopped(SearchDeadline deadline, TraceFormat traceFormat, double[] dist, Integer settled) {
+        GraphOperationResponse response = GraphOperationResponse.error(deadline.reason());
+        response.setPartial(true);
+        response.setTraceFormat(traceFormat.value());
+        response.setFinalDistances(snapshotDistances(dist));
+        response.setSettledNodes(settled);
+        return response;
+    }
+
+    private void recordSearch(String algorithm, CsrGraph graph, long startNanos, long settled, long relaxed, long pushes) {
+        int n = graph.nodeCount();
+        metrics.phase(algorithm, RoutingMetrics.SEARCH, n).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        metrics.work(algorithm, n, settled, relaxed, pushes);
+    }
+
+    private NodeQueue newQueue(int nodeCount) {
+        return NodeQueue.create(properties.getHeap(), nodeCount, properties.getHeapArity());
+    }
+
+    private static int keyframeInterval(GraphOperationRequest request) {
+        Integer interval = request.getKeyframeInterval();
+        if (interval != null && interval < 0) {
+            throw new IllegalArgumentException("Keyframe interval cannot be negative");
+        }
+        return interval == null ? 0 : interval;
+    }
+
+    private static Map<Integer, Double> snapshotDistances(double[] dist) {
+        Map<Integer, Double> snapshot = new HashMap<>();
+        for (int i = 0; i < dist.length; i++) {
+            snapshot.put(i, dist[i]);
+        }
+        return snapshot;
+    }
+}
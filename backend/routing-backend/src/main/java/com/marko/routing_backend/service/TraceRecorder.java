@@ -0,0 +1,136 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.dto.SimulationStep;
+import com.marko.routing_backend.dto.TraceFormat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Turns the live dist/prev arrays of a running search into {@link SimulationStep}s. Algorithms
+ * report every label change via {@link #changed}, every relaxed edge via {@link #visited} and
+ * call {@link #step} wherever the animation should show a frame.
+ */
+final class TraceRecorder {
+    private final TraceFormat format;
+    private final int keyframeInterval;
+    private final double[] dist;
+    private final int[] prev;
+    private final boolean nullForNone;
+    private final Consumer<SimulationStep> sink;
+    private final String side;
+
+    // Every edge visited so far, in visit order; delta steps send the part after stepEdges
+    private int[] edges = new int[16];
+    private int edgeCount;
+    private int stepEdges;
+
+    // Nodes whose label changed since the last step (delta mode only)
+    private final boolean[] dirty;
+    private final int[] dirtyNodes;
+    private int dirtyCount;
+
+    private int stepCount;
+
+    TraceRecorder(TraceFormat format, int keyframeInterval, double[] dist, int[] prev,
+                  boolean nullForNone, Consumer<SimulationStep> sink) {
+        this(format, keyframeInterval, dist, prev, nullForNone, sink, null);
+    }
+
+    // Steps of a search that runs from both ends are tagged with the side that produced them
+    TraceRecorder(TraceFormat format, int keyframeInterval, double[] dist, int[] prev,
+                  boolean nullForNone, Consumer<SimulationStep> sink, String side) {
+        this.side = side;
+        this.format = format;
+        this.keyframeInterval = keyframeInterval;
+        this.dist = dist;
+        this.prev = prev;
+        this.nullForNone = nullForNone;
+        this.sink = sink;
+        boolean delta = format == TraceFormat.DELTA;
+        this.dirty = delta ? new boolean[dist.length] : null;
+        this.dirtyNodes = delta ? new int[dist.length] : null;
+    }
+
+    void changed(int node) {
+        if (dirty != null && !dirty[node]) {
+            dirty[node] = true;
+            dirtyNodes[dirtyCount++] = node;
+        }
+    }
+
+    void visited(int edge) {
+        if (format == TraceFormat.NONE) {
+            return;
+        }
+        if (edgeCount == edges.length) {
+            edges = Arrays.copyOf(edges, edgeCount * 2);
+        }
+        edges[edgeCount++] = edge;
+    }
+
+    void step(int currentNode) {
+        if (format == TraceFormat.NONE) {
+            return;
+        }
+        SimulationStep step = new SimulationStep();
+        step.setCurrentNode(currentNode);
+        step.setSide(side);
+
+        if (format == TraceFormat.FULL) {
+            step.setVisitedEdgeIndices(Arrays.copyOf(edges, edgeCount));
+            step.setDistances(snapshotDistances());
+            step.setPredecessors(snapshotPredecessors());
+        } else {
+            boolean keyframe = stepCount == 0 || (keyframeInterval > 0 && stepCount % keyframeInterval == 0);
+            step.setKeyframe(keyframe);
+            // A keyframe is a seek point, so it repeats every visited edge, not just the new ones
+            step.setVisitedEdgeIndices(keyframe ? Arrays.copyOf(edges, edgeCount) : Arrays.copyOfRange(edges, stepEdges, edgeCount));
+            if (keyframe) {
+                step.setDistances(snapshotDistances());
+                step.setPredecessors(snapshotPredecessors());
+            } else {
+                Map<Integer, Double> changedDist = new HashMap<>();
+                Map<Integer, Integer> changedPrev = new HashMap<>();
+                for (int i = 0; i < dirtyCount; i++) {
+                    int node = dirtyNodes[i];
+                    changedDist.put(node, dist[node]);
+                    changedPrev.put(node, predecessor(node));
+                }
+                step.setDistances(changedDist);
+                step.setPredecessors(changedPrev);
+            }
+            for (int i = 0; i < dirtyCount; i++) {
+                dirty[dirtyNodes[i]] = false;
+            }
+            dirtyCount = 0;
+            stepEdges = edgeCount;
+        }
+
+        stepCount++;
+        sink.accept(step);
+    }
+
+    private Map<Integer, Double> snapshotDistances() {
+        Map<Integer, Double> snapshot = new HashMap<>();
+        for (int i = 0; i < dist.length; i++) {
+            snapshot.put(i, dist[i]);
+        }
+        return snapshot;
+    }
+
+    private Map<Integer, Integer> snapshotPredecessors() {
+        Map<Integer, Integer> snapshot = new HashMap<>();
+        for (int i = 0; i < prev.length; i++) {
+            snapshot.put(i, predecessor(i));
+        }
+        return snapshot;
+    }
+
+    // Dijkstra reports missing predecessors as -1, Bellman-Ford as null
+    private Integer predecessor(int node) {
+        return prev[node] == -1 && nullForNone ? null : prev[node];
+    }
+}
@@ -9,6 +9,9 @@ let running = false;
 let draggingNode = null;
 let lastAction = null;
 
+// Full distance/predecessor snapshot requested from the backend every N steps of a delta trace
+const KEYFRAME_INTERVAL = 50;
+
 // Debug logging
 function logDebug(msg) {
     console.log(`[DEBUG] ${msg}`);
@@ -136,7 +139,7 @@ function wireUi() {
             const end = parseIndexInput('Enter end node index (0..' + (nodes.length - 1) + ')');
             if (start === end) return alert('Start and end must be different');
 
-            const request = { nodes, edges, startNode: start, endNode: end };
+            const request = { nodes, edges, startNode: start, endNode: end, traceFormat: 'delta', keyframeInterval: KEYFRAME_INTERVAL };
             const result = await window.api.runDijkstra(request);
             applySimulationResult(result, start, end, 'Dijkstra Table');
         } catch (err) {
@@ -151,7 +154,7 @@ function wireUi() {
             const end = parseIndexInput('Enter end node index (0..' + (nodes.length - 1) + ')');
             if (start === end) return alert('Start and end must be different');
 
-            const request = { nodes, edges, startNode: start, endNode: end };
+            const request = { nodes, edges, startNode: start, endNode: end, traceFormat: 'delta', keyframeInterval: KEYFRAME_INTERVAL };
             const result = await window.api.runBellmanFord(request);
             applySimulationResult(result, start, end, 'Bellman-Ford Table');
         } catch (err) {
@@ -390,7 +393,13 @@ function applySimulationResult(result, start, end, title) {
 
     // Set up animation state
     const animationEdges = [];
-    if (result.steps && result.steps.length) {
+    if (result.steps && result.steps.length && result.traceFormat === 'delta') {
+        const { distanceStack, predecessorStack } = expandDeltaSteps(result.steps, animationEdges);
+        infoTableStacks = {
+            distanceStack: distanceStack.reverse(),
+            predecessorStack: predecessorStack.reverse()
+        };
+    } else if (result.steps && result.steps.length) {
         result.steps.forEach(step => {
             if (step.visitedEdgeIndices) {
                 animationEdges.push(...step.visitedEdgeIndices);
@@ -444,3 +453,31 @@ function applySimulationResult(result, start, end, title) {
         }
     };
 }
+
+// Rebuild per-step tables from a delta trace: keyframes replace the running state,
+// other steps patch only the nodes that changed. A keyframe lists every edge visited so far.
+function expandDeltaSteps(steps, animationEdges) {
+    const distanceStack = [];
+    const predecessorStack = [];
+    let distances = [];
+    let predecessors = [];
+    let edgeTotal = 0;
+    steps.forEach(step => {
+        const visited = step.visitedEdgeIndices || [];
+        // Keyframes repeat every edge visited so far; only the tail is new
+        animationEdges.push(...(step.keyframe ? visited.slice(edgeTotal) : visited));
+        edgeTotal = step.keyframe ? visited.length : edgeTotal + visited.length;
+        if (step.keyframe) {
+            distances = [];
+            predecessors = [];
+        } else {
+            distances = distances.slice();
+            predecessors = predecessors.slice();
+        }
+        Object.entries(step.distances || {}).forEach(([node, value]) => distances[Number(node)] = value);
+        Object.entries(step.predecessors || {}).forEach(([node, value]) => predecessors[Number(node)] = value);
+        distanceStack.push(distances);
+        predecessorStack.push(predecessors);
+    });
+    return { distanceStack, predecessorStack };
+}
@@ -0,0 +1,53 @@
+package com.marko.routing_backend.config;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.marko.routing_backend.dto.EdgeColumnList;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.InlineGraph;
+import com.marko.routing_backend.exception.GraphValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphRequestConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private InlineGraph read(RoutingProperties properties, String json) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            return new GraphRequestConverter(objectMapper, properties).read(GraphOperationRequest.class, parser);
+        }
+    }
+
+    @Test
+    void whenBodyIsWithinLimits_thenColumnsHoldEveryEntry() throws IOException {
+        InlineGraph graph = read(new RoutingProperties(),
+            "{\"nodes\":[{\"id\":0},null,{\"id\":2,\"x\":1.5}],\"edges\":[{\"start\":0,\"end\":2,\"cost\":4},null],\"startNode\":0}");
+
+        assertEquals(3, graph.getNodes().size());
+        assertNull(graph.getNodes().get(1));
+        assertEquals(1.5, graph.getNodes().get(2).getX());
+        EdgeColumnList edges = (EdgeColumnList) graph.getEdges();
+        assertArrayEquals(new int[]{0, 0}, edges.startColumn());
+        assertEquals("Edge entry cannot be null", edges.problem());
+        assertEquals(0, ((GraphOperationRequest) graph).getStartNode());
+    }
+
+    @Test
+    void whenCountPassesLimit_thenRejectedBeforeRestOfBodyIsRead() {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setMaxEdges(2);
+        // Everything after the third edge is malformed, so reaching it would be a parse error instead
+        String edges = "{\"nodes\":[{},{}],\"edges\":[{\"start\":0,\"end\":1},{\"start\":1,\"end\":0},{\"start\":0,\"end\":1},{oops";
+
+        GraphValidationException error = assertThrows(GraphValidationException.class, () -> read(properties, edges));
+        assertEquals("edges", error.getField());
+
+        properties.setMaxNodes(1);
+        error = assertThrows(GraphValidationException.class, () -> read(properties, "{\"nodes\":[{},{},{oops"));
+        assertEquals("nodes", error.getField());
+    }
+}
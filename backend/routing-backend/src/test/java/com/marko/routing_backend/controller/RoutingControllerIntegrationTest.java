@@ -1,7 +1,9 @@
 package com.marko.routing_backend.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.marko.routing_backend.dto.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -9,11 +11,25 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.lang.NonNull;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
 import java.util.Objects;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
@@ -27,6 +43,9 @@ public class RoutingControllerIntegrationTest {
 
     @Autowired
     private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
     
     @NonNull
     private String toJson(@NonNull Object obj) {
@@ -120,4 +139,520 @@ public class RoutingControllerIntegrationTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.error").value("No path exists between the selected nodes"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenDeltaTraceRequested_thenStepsCarryOnlyChanges() throws Exception {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        request.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(1, 2, 3)
+        ));
+        request.setStartNode(0);
+        request.setEndNode(2);
+        request.setTraceFormat("delta");
+
+        mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.traceFormat").value("delta"))
+                .andExpect(jsonPath("$.steps[0].keyframe").value(true))
+                .andExpect(jsonPath("$.steps[0].distances.length()").value(3))
+                .andExpect(jsonPath("$.steps[1].keyframe").value(false))
+                .andExpect(jsonPath("$.steps[1].distances.length()").value(1))
+                .andExpect(jsonPath("$.steps[1].visitedEdgeIndices[0]").value(0))
+                .andExpect(jsonPath("$.steps[2].visitedEdgeIndices[0]").value(1))
+                .andExpect(jsonPath("$.totalCost").value(8.0));
+    }
+
+    @Test
+    void whenStreamingDijkstra_thenStepsArriveAsNdjsonFollowedBySummary() throws Exception {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        request.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(1, 2, 3)
+        ));
+        request.setStartNode(0);
+        request.setEndNode(2);
+
+        MvcResult result = mockMvc.perform(post("/api/routing/dijkstra/stream")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .content(toJson(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"type\":\"summary\"")))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].contains("\"type\":\"step\""));
+        assertTrue(lines[3].contains("\"totalCost\":8.0"));
+    }
+
+    @Test
+    void whenRouteOnlyRequested_thenReturnsResultWithoutSteps() throws Exception {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        request.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(1, 2, 3),
+            new EdgeDto(0, 2, 10)
+        ));
+        request.setStartNode(0);
+        request.setEndNode(2);
+
+        mockMvc.perform(post("/api/routing/bellman-ford/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.path").isArray())
+                .andExpect(jsonPath("$.path.length()").value(3))
+                .andExpect(jsonPath("$.totalCost").value(8.0))
+                .andExpect(jsonPath("$.steps").doesNotExist());
+    }
+
+    @Test
+    void whenNegativeEdgeInBellmanFord_thenReportsCycle() throws Exception {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        request.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 4),
+            new EdgeDto(1, 2, -2)
+        ));
+        request.setStartNode(0);
+        request.setEndNode(2);
+
+        mockMvc.perform(post("/api/routing/bellman-ford")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Graph contains negative cycles"))
+                .andExpect(jsonPath("$.negativeCycle.length()").value(3))
+                .andExpect(jsonPath("$.negativeCycleEdges[0]").value(1))
+                .andExpect(jsonPath("$.negativeCycleEdges[1]").value(1));
+    }
+
+    @Test
+    void whenOnlyOtherComponentIsDisconnected_thenDijkstraStillRoutes() throws Exception {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        request.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 5) // Node 2 is isolated but not involved
+        ));
+        request.setStartNode(0);
+        request.setEndNode(1);
+
+        mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.totalCost").value(5.0));
+
+        mockMvc.perform(post("/api/graph/validate")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.connected").value(false))
+                .andExpect(jsonPath("$.componentCount").value(2));
+    }
+
+    @Test
+    void whenGraphIsRegistered_thenRoutesByIdUntilDeleted() throws Exception {
+        SavedGraphDto graph = new SavedGraphDto();
+        graph.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        graph.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(1, 2, 3),
+            new EdgeDto(0, 2, 10)
+        ));
+
+        String created = mockMvc.perform(post("/api/graphs")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(graph)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.nodeCount").value(3))
+                .andExpect(jsonPath("$.edgeCount").value(3))
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setGraphId(id);
+        request.setStartNode(0);
+        request.setEndNode(2);
+
+        mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.totalCost").value(8.0))
+                .andExpect(jsonPath("$.shortestPath[1]").value(1));
+
+        mockMvc.perform(get("/api/graphs/" + id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.edges.length()").value(3));
+
+        mockMvc.perform(delete("/api/graphs/" + id))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/routing/bellman-ford/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenEdgeCostsArePatched_thenCachedTreeIsRepairedAndRoutesChange() throws Exception {
+        SavedGraphDto graph = new SavedGraphDto();
+        graph.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1"),
+            new NodeDto(2, 200, 200, "N2")
+        ));
+        graph.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(1, 2, 3),
+            new EdgeDto(0, 2, 10)
+        ));
+        long id = objectMapper.readTree(mockMvc.perform(post("/api/graphs")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(graph)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setGraphId(id);
+        request.setStartNode(0);
+        request.setEndNode(2);
+        mockMvc.perform(post("/api/routing/dijkstra/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(8.0));
+
+        // Saving an overlay leaves the edges alone, so the tree built above stays cached
+        mockMvc.perform(post("/api/graphs/" + id + "/hierarchy"))
+                .andExpect(status().isOk());
+
+        EdgePatchRequest patch = new EdgePatchRequest();
+        patch.setUpdate(List.of(new EdgePatchRequest.CostUpdate(1, 20)));
+        mockMvc.perform(patch("/api/graphs/" + id + "/edges")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(patch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.repairedTrees").value(1))
+                .andExpect(jsonPath("$.affectedNodes").value(1))
+                .andExpect(jsonPath("$.repairedNodes").value(1))
+                .andExpect(jsonPath("$.fullRecomputeNodes").value(3));
+
+        mockMvc.perform(post("/api/routing/dijkstra/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalCost").value(10.0))
+                .andExpect(jsonPath("$.path.length()").value(2))
+                // Tree-backed answers only carry the labels along the path
+                .andExpect(jsonPath("$.distances.length()").value(2))
+                .andExpect(jsonPath("$.distances['2']").value(10.0));
+
+        patch.setUpdate(null);
+        patch.setRemove(List.of(7));
+        mockMvc.perform(patch("/api/graphs/" + id + "/edges")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(patch)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenAStarRunsOnSpatialGrid_thenSettlesFewerNodesThanDijkstra() throws Exception {
+        GraphOperationRequest request = gridRequest(30);
+
+        JsonNode dijkstra = objectMapper.readTree(mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode astar = objectMapper.readTree(mockMvc.perform(post("/api/routing/astar")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(dijkstra.get("totalCost").asDouble(), astar.get("totalCost").asDouble(), 1e-9);
+        assertTrue(astar.get("settledNodes").asInt() * 2 < dijkstra.get("settledNodes").asInt(),
+            "A* settled " + astar.get("settledNodes") + ", Dijkstra " + dijkstra.get("settledNodes"));
+    }
+
+    @Test
+    void whenBidirectionalSearchRuns_thenFindsSameCostSettlingFewerNodes() throws Exception {
+        GraphOperationRequest request = gridRequest(30);
+
+        JsonNode dijkstra = objectMapper.readTree(mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        request.setTraceFormat("delta");
+        JsonNode bidirectional = objectMapper.readTree(mockMvc.perform(post("/api/routing/bidirectional")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.steps[0].side").value("forward"))
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(dijkstra.get("totalCost").asDouble(), bidirectional.get("totalCost").asDouble(), 1e-9);
+        assertTrue(bidirectional.get("settledNodes").asInt() < dijkstra.get("settledNodes").asInt(),
+            "bidirectional settled " + bidirectional.get("settledNodes") + ", Dijkstra " + dijkstra.get("settledNodes"));
+    }
+
+    @Test
+    void whenHierarchyIsBuilt_thenChRouteMatchesDijkstraWithEdgeIndices() throws Exception {
+        GraphOperationRequest grid = gridRequest(20);
+        SavedGraphDto graph = new SavedGraphDto();
+        graph.setNodes(grid.getNodes());
+        graph.setEdges(grid.getEdges());
+        String created = mockMvc.perform(post("/api/graphs")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(graph)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = objectMapper.readTree(created).get("id").asLong();
+
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setGraphId(id);
+        request.setStartNode(0);
+        request.setEndNode(399);
+
+        mockMvc.perform(post("/api/routing/ch/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/graphs/" + id + "/hierarchy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.graphId").value(id))
+                .andExpect(jsonPath("$.shortcuts").isNumber());
+
+        JsonNode dijkstra = objectMapper.readTree(mockMvc.perform(post("/api/routing/dijkstra/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode ch = objectMapper.readTree(mockMvc.perform(post("/api/routing/ch/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.path[0]").value(0))
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(dijkstra.get("totalCost").asDouble(), ch.get("totalCost").asDouble(), 1e-9);
+        assertEquals(ch.get("path").size() - 1, ch.get("edgeIndices").size());
+        double sum = 0;
+        for (JsonNode edge : ch.get("edgeIndices")) {
+            sum += grid.getEdges().get(edge.asInt()).getCost();
+        }
+        assertEquals(ch.get("totalCost").asDouble(), sum, 1e-9);
+    }
+
+    @Test
+    void whenLandmarksAreBuilt_thenAltSettlesFewerNodesWithoutCoordinates() throws Exception {
+        GraphOperationRequest grid = gridRequest(30);
+        SavedGraphDto graph = new SavedGraphDto();
+        graph.setNodes(new ArrayList<>());
+        for (NodeDto node : grid.getNodes()) {
+            graph.getNodes().add(new NodeDto(node.getId(), 0, 0, null));
+        }
+        graph.setEdges(grid.getEdges());
+        long id = objectMapper.readTree(mockMvc.perform(post("/api/graphs")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(graph)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setGraphId(id);
+        request.setStartNode(grid.getStartNode());
+        request.setEndNode(grid.getEndNode());
+        request.setTraceFormat("none");
+
+        mockMvc.perform(post("/api/routing/alt")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(post("/api/graphs/" + id + "/landmarks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.landmarks.length()").value(8))
+                .andExpect(jsonPath("$.tableBytes").isNumber());
+
+        JsonNode dijkstra = objectMapper.readTree(mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode alt = objectMapper.readTree(mockMvc.perform(post("/api/routing/alt")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andReturn().getResponse().getContentAsString());
+
+        assertEquals(dijkstra.get("totalCost").asDouble(), alt.get("totalCost").asDouble(), 1e-9);
+        assertTrue(alt.get("settledNodes").asInt() < dijkstra.get("settledNodes").asInt() / 2,
+            "ALT settled " + alt.get("settledNodes") + ", Dijkstra " + dijkstra.get("settledNodes"));
+    }
+
+    @Test
+    void whenMatrixIsRequested_thenCostsAreReturnedAsRowMajorDoubles() throws Exception {
+        MatrixRequest request = new MatrixRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "A"),
+            new NodeDto(1, 100, 0, "B"),
+            new NodeDto(2, 200, 0, "C"),
+            new NodeDto(3, 300, 0, "D")
+        ));
+        request.setEdges(Arrays.asList(
+            new EdgeDto(0, 1, 4),
+            new EdgeDto(1, 2, 1),
+            new EdgeDto(0, 2, 7)
+        ));
+        request.setSources(Arrays.asList(0, 2));
+        request.setTargets(Arrays.asList(1, 2, 3));
+
+        JsonNode response = objectMapper.readTree(mockMvc.perform(post("/api/routing/matrix")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows").value(2))
+                .andExpect(jsonPath("$.columns").value(3))
+                .andExpect(jsonPath("$.encoding").value("float64-le-base64"))
+                .andReturn().getResponse().getContentAsString());
+
+        double[] costs = new double[6];
+        ByteBuffer.wrap(Base64.getDecoder().decode(response.get("data").asText()))
+            .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(costs);
+        assertArrayEquals(new double[]{4, 5, Double.POSITIVE_INFINITY, 1, 0, Double.POSITIVE_INFINITY}, costs);
+
+        request.setTargets(Arrays.asList(1, 9));
+        mockMvc.perform(post("/api/routing/matrix")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(toJson(request)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("targets"));
+    }
+
+    @Test
+    void whenStreamingBellmanFord_thenPhaseTimersAndWorkCountersAreRecorded() throws Exception {
+        GraphOperationRequest request = gridRequest(4);
+        request.setStartNode(0);
+        request.setEndNode(15);
+        request.setTraceFormat("delta");
+        long buildsBefore = meterRegistry.find("routing.phase")
+            .tags("algorithm", "bellman-ford", "phase", "build", "size", "1k").timers().stream().mapToLong(t -> t.count()).sum();
+
+        MvcResult result = mockMvc.perform(post("/api/routing/bellman-ford/stream")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .accept(MediaType.parseMediaType("application/x-ndjson"))
+                .content(toJson(request)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk());
+
+        for (String phase : List.of("validate", "build", "search", "serialize")) {
+            assertTrue(meterRegistry.get("routing.phase")
+                .tags("algorithm", "bellman-ford", "phase", phase, "size", "1k").timer().count() > 0, phase);
+        }
+        // The up-front checks do not build the graph a second time
+        assertEquals(buildsBefore + 1, meterRegistry.get("routing.phase")
+            .tags("algorithm", "bellman-ford", "phase", "build", "size", "1k").timer().count());
+        assertTrue(meterRegistry.get("routing.edges.relaxed").tags("algorithm", "bellman-ford").counter().count() > 0);
+        assertTrue(meterRegistry.get("routing.trace.bytes").tags("algorithm", "bellman-ford").summary().totalAmount() > 0);
+    }
+
+    @Test
+    void whenEdgesArriveBeforeNodes_thenStreamedBodyStillRoutes() throws Exception {
+        String body = "{\"edges\":[{\"start\":0,\"end\":1,\"cost\":5},{\"start\":1,\"end\":2,\"cost\":\"3\"}],"
+            + "\"startNode\":0,\"endNode\":2,\"extra\":{\"ignored\":[1,2]},"
+            + "\"nodes\":[{\"id\":0,\"x\":0,\"y\":0},{\"id\":1,\"x\":100,\"y\":0,\"label\":\"N1\"},{\"id\":2,\"x\":200,\"y\":0}]}";
+
+        mockMvc.perform(post("/api/routing/dijkstra/route")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.path.length()").value(3))
+                .andExpect(jsonPath("$.totalCost").value(8.0));
+    }
+
+    @Test
+    void whenStreamedEdgeReferencesMissingNode_thenReturnsValidationError() throws Exception {
+        String body = "{\"nodes\":[{\"id\":0,\"x\":0,\"y\":0},{\"id\":1,\"x\":1,\"y\":0}],"
+            + "\"edges\":[{\"start\":0,\"end\":1,\"cost\":1},{\"start\":1,\"end\":7,\"cost\":1}],"
+            + "\"startNode\":0,\"endNode\":1}";
+
+        mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content(body))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Edge references invalid node index: start=1, end=7"));
+
+        mockMvc.perform(post("/api/routing/dijkstra")
+                .contentType(Objects.requireNonNull(APPLICATION_JSON_UTF8))
+                .content("{\"nodes\":{\"id\":0},\"edges\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(containsString("Expected an array for 'nodes'")));
+    }
+
+    private static GraphOperationRequest gridRequest(int side) {
+        List<NodeDto> nodes = new ArrayList<>();
+        List<EdgeDto> edges = new ArrayList<>();
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int id = r * side + c;
+                nodes.add(new NodeDto(id, c * 10, r * 10, null));
+                // Costs are at least the drawn length, as with road distances
+                if (c + 1 < side) edges.add(new EdgeDto(id, id + 1, 10 + (r + c) % 3));
+                if (r + 1 < side) edges.add(new EdgeDto(id, id + side, 10 + (r * c) % 4));
+            }
+        }
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(nodes);
+        request.setEdges(edges);
+        request.setStartNode(15 * side);
+        request.setEndNode(15 * side + side - 1);
+        request.setTraceFormat("none");
+        return request;
+    }
+}
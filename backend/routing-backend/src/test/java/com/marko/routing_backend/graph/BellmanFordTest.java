@@ -0,0 +1,102 @@
+package com.marko.routing_backend.graph;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BellmanFordTest {
+
+    private static CsrGraph randomGraph(int n, int m, long seed) {
+        Random random = new Random(seed);
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            start[i] = random.nextInt(n);
+            end[i] = random.nextInt(n);
+            cost[i] = 1 + random.nextInt(50);
+        }
+        return CsrGraph.fromColumns(n, start, end, cost);
+    }
+
+    @Test
+    void whenModesRunOnSameGraph_thenDistancesAgree() {
+        CsrGraph graph = randomGraph(300, 1_200, 7);
+        double[] expected = BellmanFord.run(graph, 0, BellmanFord.Mode.PASSES, ForkJoinPool.commonPool()).dist();
+
+        for (BellmanFord.Mode mode : BellmanFord.Mode.values()) {
+            BellmanFord.Result result = BellmanFord.run(graph, 0, mode, ForkJoinPool.commonPool());
+            assertFalse(result.hasNegativeCycle(), mode.name());
+            assertArrayEquals(expected, result.dist(), 1e-9, mode.name());
+        }
+    }
+
+    @Test
+    void whenNoLabelChanges_thenStopEarly() {
+        // A path visited in edge order settles in one pass, plus one pass to confirm nothing changed
+        CsrGraph graph = CsrGraph.fromColumns(5,
+            new int[]{0, 1, 2, 3}, new int[]{1, 2, 3, 4}, new double[]{1, 1, 1, 1});
+
+        BellmanFord.Result result = BellmanFord.run(graph, 0, BellmanFord.Mode.PASSES, ForkJoinPool.commonPool());
+
+        assertEquals(2, result.passes());
+        assertEquals(4, result.dist()[4]);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BellmanFord.Mode.class)
+    void whenStopSignalFires_thenResultIsMarkedStopped(BellmanFord.Mode mode) {
+        // Large enough for a second poll in QUEUE mode, which polls every 1024 node scans
+        CsrGraph graph = randomGraph(3_000, 12_000, 7);
+        int[] polls = {0};
+
+        BellmanFord.Result result = BellmanFord.run(graph, 0, mode, ForkJoinPool.commonPool(), () -> ++polls[0] > 1);
+
+        assertTrue(result.isStopped());
+        assertFalse(result.hasNegativeCycle());
+        assertEquals(0, result.dist()[0]);
+    }
+
+    @ParameterizedTest
+    @EnumSource(BellmanFord.Mode.class)
+    void whenNegativeEdgeIsReachable_thenReportNegativeCycle(BellmanFord.Mode mode) {
+        CsrGraph graph = CsrGraph.fromColumns(3,
+            new int[]{0, 1}, new int[]{1, 2}, new double[]{2, -1});
+
+        assertTrue(BellmanFord.run(graph, 0, mode, ForkJoinPool.commonPool()).hasNegativeCycle());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BellmanFord.Mode.class)
+    void whenNegativeCycleFound_thenWalkIsClosedAndUsesNegativeEdge(BellmanFord.Mode mode) {
+        CsrGraph graph = CsrGraph.fromColumns(4,
+            new int[]{0, 1, 2}, new int[]{1, 2, 3}, new double[]{2, 3, -1});
+
+        NegativeCycle cycle = BellmanFord.run(graph, 0, mode, ForkJoinPool.commonPool()).negativeCycle();
+
+        assertNotNull(cycle);
+        int[] nodes = cycle.nodes();
+        assertEquals(nodes[0], nodes[nodes.length - 1]);
+        assertEquals(nodes.length - 1, cycle.edges().length);
+        assertArrayEquals(new int[]{2, 2}, cycle.edges());
+    }
+
+    @Test
+    void whenNegativeEdgeReachable_thenPrecheckReportsTwoCycle() {
+        CsrGraph graph = CsrGraph.fromColumns(5,
+            new int[]{0, 1, 3}, new int[]{1, 2, 4}, new double[]{2, -3, -1});
+
+        NegativeCycle cycle = NegativeCycle.findNegativeEdge(graph, 0);
+
+        assertNotNull(cycle);
+        assertArrayEquals(new int[]{1, 1}, cycle.edges());
+        // Edge 3-4 lies in another component, so it cannot be reached from node 0
+        assertNull(NegativeCycle.findNegativeEdge(CsrGraph.fromColumns(5,
+            new int[]{0, 1, 3}, new int[]{1, 2, 4}, new double[]{2, 3, -1}), 0));
+    }
+}
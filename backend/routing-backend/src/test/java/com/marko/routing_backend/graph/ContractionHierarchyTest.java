@@ -0,0 +1,100 @@
+package com.marko.routing_backend.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContractionHierarchyTest {
+
+    // Grid with a few random long-range edges, close to how road graphs contract
+    private static CsrGraph roadLikeGraph(int side, long seed) {
+        Random random = new Random(seed);
+        int n = side * side;
+        int m = 2 * side * (side - 1) + n / 20;
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        int i = 0;
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int id = r * side + c;
+                if (c + 1 < side) {
+                    start[i] = id;
+                    end[i] = id + 1;
+                    cost[i++] = 1 + random.nextInt(9);
+                }
+                if (r + 1 < side) {
+                    start[i] = id;
+                    end[i] = id + side;
+                    cost[i++] = 1 + random.nextInt(9);
+                }
+            }
+        }
+        while (i < m) {
+            start[i] = random.nextInt(n);
+            end[i] = random.nextInt(n);
+            cost[i++] = 5 + random.nextInt(40);
+        }
+        return CsrGraph.fromColumns(n, start, end, cost);
+    }
+
+    private static void assertRoutesMatchDijkstra(CsrGraph graph, ContractionHierarchy hierarchy, int source) {
+        double[] expected = BellmanFord.run(graph, source, BellmanFord.Mode.QUEUE, ForkJoinPool.commonPool()).dist();
+        for (int target = 0; target < graph.nodeCount(); target += 7) {
+            ContractionHierarchy.Route route = hierarchy.route(source, target);
+            if (expected[target] == Double.POSITIVE_INFINITY) {
+                assertNull(route);
+                continue;
+            }
+            assertEquals(expected[target], route.cost(), 1e-9, "target " + target);
+
+            // Unpacked input edges must form a walk from source to target of the same cost
+            int[] nodes = route.nodes();
+            int[] edges = route.edges();
+            assertEquals(source, nodes[0]);
+            assertEquals(target, nodes[nodes.length - 1]);
+            double length = 0;
+            for (int k = 0; k < edges.length; k++) {
+                int e = edges[k];
+                assertTrue(graph.edgeStart(e) == nodes[k] || graph.edgeEnd(e) == nodes[k], "edge " + e);
+                length += graph.edgeCost(e);
+            }
+            assertEquals(route.cost(), length, 1e-9, "target " + target);
+        }
+    }
+
+    @Test
+    void whenQueriedAfterContraction_thenRoutesMatchDijkstra() {
+        CsrGraph graph = roadLikeGraph(40, 3);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, ForkJoinPool.commonPool());
+
+        assertTrue(hierarchy.shortcutCount() > 0);
+        assertRoutesMatchDijkstra(graph, hierarchy, 0);
+        assertRoutesMatchDijkstra(graph, hierarchy, 817);
+    }
+
+    @Test
+    void whenEncodedAndDecoded_thenAnswersAreUnchanged() {
+        CsrGraph graph = roadLikeGraph(20, 5);
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, ForkJoinPool.commonPool());
+
+        ContractionHierarchy restored = ContractionHierarchy.decode(graph, hierarchy.encode());
+
+        assertEquals(hierarchy.shortcutCount(), restored.shortcutCount());
+        assertRoutesMatchDijkstra(graph, restored, 123);
+        assertThrows(IllegalArgumentException.class,
+            () -> ContractionHierarchy.decode(roadLikeGraph(10, 5), hierarchy.encode()));
+    }
+
+    @Test
+    void whenGraphIsDisconnected_thenRouteIsNull() {
+        CsrGraph graph = CsrGraph.fromColumns(4, new int[]{0, 2}, new int[]{1, 3}, new double[]{1, 1});
+        ContractionHierarchy hierarchy = ContractionHierarchy.build(graph, ForkJoinPool.commonPool());
+
+        assertNull(hierarchy.route(0, 3));
+        assertEquals(1, hierarchy.route(3, 2).cost());
+    }
+}
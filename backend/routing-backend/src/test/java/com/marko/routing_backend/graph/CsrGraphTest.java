@@ -0,0 +1,63 @@
+package com.marko.routing_backend.graph;
+
+import com.marko.routing_backend.dto.EdgeDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+
+    @Test
+    void whenBuiltFromEdges_thenEachEdgeBecomesTwoArcs() {
+        CsrGraph graph = CsrGraph.undirected(3, Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(1, 2, 3)
+        ));
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(2, graph.edgeCount());
+        assertEquals(4, graph.arcCount());
+        assertEquals(1, graph.degree(0));
+        assertEquals(2, graph.degree(1));
+
+        // Node 1 sees both neighbours, each arc mapped back to its input edge
+        int a = graph.firstArc(1);
+        assertEquals(0, graph.arcTarget(a));
+        assertEquals(0, graph.arcEdge(a));
+        assertEquals(5, graph.arcWeight(a));
+        assertEquals(2, graph.arcTarget(a + 1));
+        assertEquals(1, graph.arcEdge(a + 1));
+        assertEquals(3, graph.arcWeight(a + 1));
+    }
+
+    @Test
+    void whenParallelEdgesExist_thenKeepCheapestArc() {
+        CsrGraph graph = CsrGraph.undirected(2, Arrays.asList(
+            new EdgeDto(0, 1, 7),
+            new EdgeDto(1, 0, 2),
+            new EdgeDto(0, 1, 4)
+        ));
+
+        assertEquals(3, graph.edgeCount());
+        assertEquals(1, graph.degree(0));
+        assertEquals(1, graph.degree(1));
+        assertEquals(2, graph.arcWeight(graph.firstArc(0)));
+        assertEquals(1, graph.arcEdge(graph.firstArc(0)));
+        assertEquals(1, graph.arcEdge(graph.firstArc(1)));
+    }
+
+    @Test
+    void whenEdgeHasNegativeCost_thenDetectCorrectly() {
+        CsrGraph graph = CsrGraph.undirected(2, Arrays.asList(new EdgeDto(0, 1, -1)));
+
+        assertTrue(graph.hasNegativeEdges());
+    }
+
+    @Test
+    void whenEdgeReferencesMissingNode_thenThrowException() {
+        assertThrows(IllegalArgumentException.class,
+            () -> CsrGraph.fromColumns(2, new int[]{0}, new int[]{2}, new double[]{1}));
+    }
+}
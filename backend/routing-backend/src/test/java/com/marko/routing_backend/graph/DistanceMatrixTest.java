@@ -0,0 +1,47 @@
+package com.marko.routing_backend.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DistanceMatrixTest {
+
+    @Test
+    void whenComputed_thenEveryCellMatchesSingleSourceDistances() {
+        Random random = new Random(9);
+        int n = 300;
+        int m = 900;
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            start[i] = random.nextInt(n);
+            end[i] = random.nextInt(n);
+            cost[i] = random.nextDouble() * 10;
+        }
+        CsrGraph graph = CsrGraph.fromColumns(n, start, end, cost);
+        int[] sources = {0, 5, 5, 77, 299, 150, 42};
+        int[] targets = {3, 0, 3, 250, 5};  // duplicates and a source among the targets
+
+        double[] matrix = DistanceMatrix.compute(graph, sources, targets, new ForkJoinPool(3));
+
+        for (int i = 0; i < sources.length; i++) {
+            double[] expected = BellmanFord.run(graph, sources[i], BellmanFord.Mode.QUEUE, ForkJoinPool.commonPool()).dist();
+            for (int j = 0; j < targets.length; j++) {
+                assertEquals(expected[targets[j]], matrix[i * targets.length + j], 1e-9, sources[i] + " -> " + targets[j]);
+            }
+        }
+    }
+
+    @Test
+    void whenTargetIsUnreachable_thenCellIsInfinite() {
+        CsrGraph graph = CsrGraph.fromColumns(4, new int[]{0, 2}, new int[]{1, 3}, new double[]{2, 5});
+
+        double[] matrix = DistanceMatrix.compute(graph, new int[]{0, 3}, new int[]{1, 2}, ForkJoinPool.commonPool());
+
+        assertArrayEquals(new double[]{2, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, 5}, matrix);
+    }
+}
@@ -0,0 +1,68 @@
+package com.marko.routing_backend.graph;
+
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.NodeDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphCodecTest {
+
+    private static final List<NodeDto> NODES = Arrays.asList(
+        new NodeDto(0, 0, 0, "A"),
+        new NodeDto(1, 100, 50.5, null),
+        new NodeDto(2, 200, 200, "Čvor")
+    );
+    private static final List<EdgeDto> EDGES = Arrays.asList(
+        new EdgeDto(2, 0, 1.5),
+        new EdgeDto(0, 1, 5),
+        new EdgeDto(1, 2, -3)
+    );
+
+    @Test
+    void whenEncodedWithOrWithoutCompression_thenDecodesToSameGraph() {
+        GraphColumns columns = GraphColumns.fromDtos(NODES, EDGES);
+        byte[] raw = GraphCodec.encode(columns, false);
+        byte[] compact = GraphCodec.encode(columns, true);
+
+        assertTrue(compact.length < raw.length);
+        for (byte[] data : List.of(raw, compact)) {
+            GraphColumns decoded = GraphCodec.decode(data);
+            List<EdgeDto> edges = decoded.toEdges();
+            List<NodeDto> nodes = decoded.toNodes();
+            assertEquals(3, edges.size());
+            assertEquals(2, edges.get(0).getStart());
+            assertEquals(0, edges.get(0).getEnd());
+            assertEquals(-3, edges.get(2).getCost());
+            assertEquals(50.5, nodes.get(1).getY());
+            assertNull(nodes.get(1).getLabel());
+            assertEquals("Čvor", nodes.get(2).getLabel());
+        }
+    }
+
+    @Test
+    void whenReadFromFile_thenMapsIntoRoutableGraph(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("graph.bin");
+        Files.write(file, GraphCodec.encode(GraphColumns.fromDtos(NODES, EDGES), false));
+
+        CsrGraph graph = GraphCodec.read(file).toGraph();
+
+        assertEquals(3, graph.nodeCount());
+        assertEquals(3, graph.edgeCount());
+        assertTrue(graph.hasNegativeEdges());
+    }
+
+    @Test
+    void whenDataIsNotABinaryGraph_thenThrowException() {
+        byte[] data = GraphCodec.encode(GraphColumns.fromDtos(NODES, EDGES), true);
+
+        assertThrows(IllegalArgumentException.class, () -> GraphCodec.decode("{\"nodes\":[]}".getBytes()));
+        assertThrows(IllegalArgumentException.class, () -> GraphCodec.decode(Arrays.copyOf(data, data.length - 4)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.marko.routing_backend.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntToDoubleFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LandmarksTest {
+
+    private static CsrGraph randomGraph(int n, int m, long seed) {
+        Random random = new Random(seed);
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            start[i] = i < n - 1 ? i : random.nextInt(n);
+            end[i] = i < n - 1 ? i + 1 : random.nextInt(n);
+            cost[i] = random.nextDouble() * 100;
+        }
+        return CsrGraph.fromColumns(n, start, end, cost);
+    }
+
+    @Test
+    void whenUsedAsHeuristic_thenBoundIsAdmissibleAndConsistent() {
+        CsrGraph graph = randomGraph(500, 2000, 11);
+        Landmarks landmarks = Landmarks.build(graph, 6, ForkJoinPool.commonPool());
+        assertEquals(6, landmarks.count());
+
+        for (int target : new int[]{0, 123, 499}) {
+            double[] exact = BellmanFord.run(graph, target, BellmanFord.Mode.QUEUE, ForkJoinPool.commonPool()).dist();
+            IntToDoubleFunction estimate = landmarks.towards(target);
+            assertEquals(0, estimate.applyAsDouble(target), 1e-9);
+            for (int v = 0; v < graph.nodeCount(); v++) {
+                assertTrue(estimate.applyAsDouble(v) <= exact[v], "node " + v + " target " + target);
+                // Consistent up to the float rounding of the tables
+                for (int a = graph.firstArc(v); a < graph.endArc(v); a++) {
+                    double slack = graph.arcWeight(a) + estimate.applyAsDouble(graph.arcTarget(a)) - estimate.applyAsDouble(v);
+                    assertTrue(slack >= -1e-3, "arc " + a + " target " + target);
+                }
+            }
+        }
+    }
+
+    @Test
+    void whenEncodedAndDecoded_thenEstimatesAreUnchanged() {
+        CsrGraph graph = randomGraph(200, 600, 5);
+        Landmarks landmarks = Landmarks.build(graph, 4, ForkJoinPool.commonPool());
+        Landmarks decoded = Landmarks.decode(graph, landmarks.encode());
+
+        assertArrayEquals(landmarks.nodes(), decoded.nodes());
+        IntToDoubleFunction before = landmarks.towards(17);
+        IntToDoubleFunction after = decoded.towards(17);
+        for (int v = 0; v < graph.nodeCount(); v++) {
+            assertEquals(before.applyAsDouble(v), after.applyAsDouble(v));
+        }
+        assertThrows(IllegalArgumentException.class, () -> Landmarks.decode(randomGraph(201, 600, 5), landmarks.encode()));
+    }
+
+    @Test
+    void whenGraphIsDisconnected_thenEveryComponentGetsALandmark() {
+        // Two paths 0-1-2-3 and 4-5-6
+        CsrGraph graph = CsrGraph.fromColumns(7,
+            new int[]{0, 1, 2, 4, 5}, new int[]{1, 2, 3, 5, 6}, new double[]{1, 1, 1, 1, 1});
+        Landmarks landmarks = Landmarks.build(graph, 2, ForkJoinPool.commonPool());
+
+        int[] nodes = landmarks.nodes();
+        assertNotEquals(nodes[0] < 4, nodes[1] < 4);
+        assertEquals(0, landmarks.towards(6).applyAsDouble(0), 1e-9);
+        assertEquals(3, landmarks.towards(3).applyAsDouble(0), 1e-6);
+    }
+}
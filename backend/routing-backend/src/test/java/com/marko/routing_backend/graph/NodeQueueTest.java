@@ -0,0 +1,58 @@
+package com.marko.routing_backend.graph;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NodeQueueTest {
+
+    @ParameterizedTest
+    @EnumSource(NodeQueue.Type.class)
+    void whenKeysAreDecreased_thenNodesPollInKeyOrderOnce(NodeQueue.Type type) {
+        NodeQueue queue = NodeQueue.create(type, 5, 2);
+        queue.push(0, 9);
+        queue.push(1, 4);
+        queue.push(2, 7);
+        queue.push(0, 1);   // decrease-key
+        queue.push(1, 8);   // increase is ignored
+
+        assertEquals(1, queue.peekKey());
+        assertEquals(0, queue.poll());
+        assertEquals(1, queue.poll());
+        assertEquals(2, queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(NodeQueue.Type.class)
+    void whenRandomOperationsApplied_thenMatchReferenceOrder(NodeQueue.Type type) {
+        int n = 500;
+        Random random = new Random(42);
+        NodeQueue queue = NodeQueue.create(type, n, 4);
+        double[] best = new double[n];
+        Arrays.fill(best, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 5_000; i++) {
+            int node = random.nextInt(n);
+            double key = random.nextInt(10_000);
+            queue.push(node, key);
+            best[node] = Math.min(best[node], key);
+        }
+
+        double last = Double.NEGATIVE_INFINITY;
+        int polled = 0;
+        while (!queue.isEmpty()) {
+            double key = queue.peekKey();
+            int node = queue.poll();
+            assertEquals(best[node], key);
+            assertTrue(key >= last);
+            best[node] = Double.NaN;
+            last = key;
+            polled++;
+        }
+        assertEquals(n, polled);
+    }
+}
@@ -0,0 +1,122 @@
+package com.marko.routing_backend.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ShortestPathTreeTest {
+
+    // Path 0-1-2-...-9 with unit costs, plus a shortcut 0-5 of cost 2 and an isolated node 10
+    private static CsrGraph chain() {
+        int[] start = new int[10];
+        int[] end = new int[10];
+        double[] cost = new double[10];
+        for (int i = 0; i < 9; i++) {
+            start[i] = i;
+            end[i] = i + 1;
+            cost[i] = 1;
+        }
+        start[9] = 0;
+        end[9] = 5;
+        cost[9] = 2;
+        return CsrGraph.fromColumns(11, start, end, cost);
+    }
+
+    @Test
+    void whenFartherTargetIsRequested_thenTreeResumesInsteadOfRestarting() {
+        CsrGraph graph = chain();
+        ShortestPathTree tree = new ShortestPathTree(graph, 0, new IndexedDaryHeap(11, 4));
+
+        assertEquals(1, tree.distanceTo(1));
+        int afterNear = tree.settledCount();
+        assertArrayEquals(new int[]{0, 1}, tree.pathTo(1));
+        assertEquals(afterNear, tree.settledCount());
+
+        assertArrayEquals(new int[]{0, 5, 6, 7}, tree.pathTo(7));
+        assertTrue(tree.settledCount() > afterNear);
+        assertFalse(tree.isComplete());
+
+        double[] expected = BellmanFord.run(graph, 0, BellmanFord.Mode.QUEUE, ForkJoinPool.commonPool()).dist();
+        for (int target = 0; target < 10; target++) {
+            assertEquals(expected[target], tree.distanceTo(target), 1e-9);
+        }
+    }
+
+    @Test
+    void whenGrowthIsStopped_thenLaterQueryResumesFromSameState() {
+        ShortestPathTree tree = new ShortestPathTree(chain(), 0, new IndexedDaryHeap(11, 4));
+        int[] polls = {0};
+
+        assertFalse(tree.reach(9, () -> ++polls[0] > 3));
+        assertEquals(3, tree.settledCount());
+
+        assertTrue(tree.reach(9, () -> false));
+        assertArrayEquals(new int[]{0, 5, 6, 7, 8, 9}, tree.pathTo(9));
+        assertEquals(6, tree.distanceTo(9), 1e-9);
+    }
+
+    @Test
+    void whenTargetIsUnreachable_thenTreeCompletesWithEmptyPath() {
+        ShortestPathTree tree = new ShortestPathTree(chain(), 3, new PairingHeap(11));
+
+        assertEquals(0, tree.pathTo(10).length);
+        assertEquals(Double.POSITIVE_INFINITY, tree.distanceTo(10));
+        assertTrue(tree.isComplete());
+        assertEquals(10, tree.settledCount());
+        assertEquals(3, tree.distanceTo(0), 1e-9);
+    }
+
+    @Test
+    void whenEdgesChange_thenRepairedTreeMatchesRecomputeAndTouchesFewerNodes() {
+        Random random = new Random(21);
+        int n = 2000;
+        int m = 6000;
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            start[i] = i < n - 1 ? i : random.nextInt(n);
+            end[i] = i < n - 1 ? i + 1 : random.nextInt(n);
+            cost[i] = 1 + random.nextInt(50);
+        }
+        GraphColumns before = new GraphColumns(new double[n], new double[n], null, null, start, end, cost);
+        ShortestPathTree tree = new ShortestPathTree(before.toGraph(), 0, new IndexedDaryHeap(n, 4));
+        tree.distanceTo(n - 1);
+        tree.pathTo(random.nextInt(n));
+        while (!tree.isComplete()) {
+            tree.distanceTo(random.nextInt(n));
+        }
+
+        for (int round = 0; round < 5; round++) {
+            // A few increases, decreases, removals and additions
+            EdgePatch patch = new EdgePatch(
+                new int[]{random.nextInt(before.edgeCount()), random.nextInt(before.edgeCount()), random.nextInt(before.edgeCount())},
+                new double[]{200, 0.5, 1 + random.nextInt(50)},
+                new int[]{random.nextInt(before.edgeCount())},
+                new int[]{random.nextInt(n)}, new int[]{random.nextInt(n)}, new double[]{3});
+            GraphColumns after = patch.apply(before);
+            CsrGraph graph = after.toGraph();
+
+            ShortestPathTree.Repair repair = tree.repair(graph, patch.touchedPairs(before), new IndexedDaryHeap(n, 4));
+
+            double[] expected = BellmanFord.run(graph, 0, BellmanFord.Mode.QUEUE, ForkJoinPool.commonPool()).dist();
+            assertArrayEquals(expected, repair.tree().distances(), 1e-9);
+            for (int target = 0; target < n; target += 97) {
+                int[] path = repair.tree().pathTo(target);
+                if (expected[target] == Double.POSITIVE_INFINITY) {
+                    assertEquals(0, path.length);
+                    continue;
+                }
+                assertEquals(0, path[0]);
+                assertEquals(target, path[path.length - 1]);
+            }
+            assertTrue(repair.tree().isComplete());
+            assertTrue(repair.repairedNodes() < repair.tree().settledCount());
+            before = after;
+            tree = repair.tree();
+        }
+    }
+}
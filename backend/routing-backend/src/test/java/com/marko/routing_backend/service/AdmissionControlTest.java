@@ -0,0 +1,80 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.AdmissionProperties;
+import com.marko.routing_backend.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdmissionControlTest {
+
+    // Budget 1000 units; requests above 100 units share at most 500 of them
+    private static AdmissionControl admission(int maxQueued, long maxWaitMillis) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setBudgetUnits(1_000);
+        properties.setHeavyShare(0.5);
+        properties.setCheapUnits(100);
+        properties.setMaxQueued(maxQueued);
+        properties.setMaxWaitMillis(maxWaitMillis);
+        properties.setRetryAfterSeconds(2);
+        return new AdmissionControl(properties, null, new RoutingMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void whenHeavyShareIsUsedUp_thenHeavyRequestsWaitButCheapOnesRun() {
+        AdmissionControl admission = admission(10, 50);
+        AdmissionControl.Permit heavy = admission.acquire("bellman-ford", 1_000_000);
+        assertEquals(500, admission.inUse());  // clamped to the heavy share so it can still run
+
+        AdmissionRejectedException timedOut = assertThrows(AdmissionRejectedException.class,
+            () -> admission.acquire("bellman-ford", 200));
+        assertFalse(timedOut.isQueueFull());
+        assertEquals(2, timedOut.getRetryAfterSeconds());
+
+        assertEquals(42, admission.call("dijkstra", 100, () -> 42));
+        heavy.close();
+        heavy.close();
+        assertEquals(0, admission.inUse());
+    }
+
+    @Test
+    void whenQueueIsFull_thenRequestsAreShedWithoutWaiting() {
+        AdmissionControl admission = admission(0, 10_000);
+        try (AdmissionControl.Permit heavy = admission.acquire("bellman-ford", 500)) {
+            long start = System.nanoTime();
+            AdmissionRejectedException shed = assertThrows(AdmissionRejectedException.class,
+                () -> admission.acquire("bellman-ford", 200));
+            assertTrue(shed.isQueueFull());
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+        }
+    }
+
+    @Test
+    void whenUnitsAreReleased_thenWaitingRequestIsAdmitted() throws Exception {
+        AdmissionControl admission = admission(10, 10_000);
+        AdmissionControl.Permit heavy = admission.acquire("bellman-ford", 500);
+        CompletableFuture<Integer> waiting = CompletableFuture.supplyAsync(() -> admission.call("bellman-ford", 300, () -> 7));
+        Thread.sleep(100);
+        assertFalse(waiting.isDone());
+
+        heavy.close();
+        assertEquals(7, waiting.get(5, TimeUnit.SECONDS));
+        assertEquals(0, admission.inUse());
+    }
+
+    @Test
+    void whenEstimating_thenBellmanFordAndFullTracesCostMost() {
+        long dijkstra = AdmissionControl.searchCost("dijkstra", 10_000, 30_000);
+        long bellmanFord = AdmissionControl.searchCost("bellman-ford", 10_000, 30_000);
+        assertTrue(bellmanFord > 100 * dijkstra);
+        assertTrue(AdmissionControl.searchCost("ch", 10_000, 30_000) < dijkstra);
+
+        assertEquals(0, AdmissionControl.traceCost("none", 10_000, 30_000));
+        assertTrue(AdmissionControl.traceCost("full", 10_000, 30_000) > AdmissionControl.traceCost("delta", 10_000, 30_000));
+        assertEquals(Long.MAX_VALUE, AdmissionControl.searchCost("bellman-ford", Integer.MAX_VALUE, Long.MAX_VALUE / 2));
+    }
+}
@@ -0,0 +1,67 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.BulkheadProperties;
+import com.marko.routing_backend.exception.BulkheadFullException;
+import com.marko.routing_backend.exception.GraphValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AlgorithmBulkheadsTest {
+
+    private static AlgorithmBulkheads bulkheads(int threads, int queueCapacity) {
+        BulkheadProperties properties = new BulkheadProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setRetryAfterSeconds(3);
+        return new AlgorithmBulkheads(properties);
+    }
+
+    @Test
+    void whenThreadsAndQueueAreFull_thenFurtherCallsAreRejectedButOtherAlgorithmsRun() throws Exception {
+        AlgorithmBulkheads bulkheads = bulkheads(1, 1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Integer> running = CompletableFuture.supplyAsync(() -> bulkheads.call("bellman-ford", () -> {
+            started.countDown();
+            await(release);
+            return 1;
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Integer> queued = CompletableFuture.supplyAsync(() -> bulkheads.call("bellman-ford", () -> 2));
+        Thread.sleep(200);
+
+        BulkheadFullException rejected = assertThrows(BulkheadFullException.class,
+            () -> bulkheads.call("bellman-ford", () -> 3));
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(4, bulkheads.call("dijkstra", () -> 4));
+
+        release.countDown();
+        assertEquals(1, running.get(5, TimeUnit.SECONDS));
+        assertEquals(2, queued.get(5, TimeUnit.SECONDS));
+        bulkheads.shutdown();
+    }
+
+    @Test
+    void whenWorkThrows_thenCallerSeesTheOriginalException() {
+        AlgorithmBulkheads bulkheads = bulkheads(0, 4);
+
+        GraphValidationException thrown = assertThrows(GraphValidationException.class,
+            () -> bulkheads.call("astar", () -> { throw new GraphValidationException("No path exists between the selected nodes"); }));
+        assertEquals("No path exists between the selected nodes", thrown.getMessage());
+        bulkheads.shutdown();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.graph.BellmanFord;
+import com.marko.routing_backend.graph.CsrGraph;
+import com.marko.routing_backend.graph.NodeQueue;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalSearchTest {
+
+    private static CsrGraph randomGraph(int n, int m, long seed) {
+        Random random = new Random(seed);
+        int[] start = new int[m];
+        int[] end = new int[m];
+        double[] cost = new double[m];
+        for (int i = 0; i < m; i++) {
+            start[i] = random.nextInt(n);
+            end[i] = random.nextInt(n);
+            cost[i] = 1 + random.nextInt(50);
+        }
+        return CsrGraph.fromColumns(n, start, end, cost);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void whenSearchingFromBothEnds_thenCostAndPathMatchOneSidedSearch(boolean threaded) {
+        CsrGraph graph = randomGraph(2_000, 6_000, 11);
+        double[] expected = BellmanFord.run(graph, 0, BellmanFord.Mode.QUEUE, ForkJoinPool.commonPool()).dist();
+
+        for (int target = 1; target < graph.nodeCount(); target += 97) {
+            BidirectionalSearch search = new BidirectionalSearch(graph, 0, target, threaded,
+                n -> NodeQueue.create(NodeQueue.Type.DARY, n, 4));
+            if (threaded) {
+                search.runThreaded(ForkJoinPool.commonPool());
+            } else {
+                search.runSequential();
+            }
+
+            if (expected[target] == Double.POSITIVE_INFINITY) {
+                assertFalse(search.found());
+                continue;
+            }
+            assertEquals(expected[target], search.cost(), 1e-9, "target " + target);
+
+            // The reported path must exist and add up to the reported cost
+            List<Integer> path = search.path();
+            assertEquals(0, path.get(0));
+            assertEquals(target, path.get(path.size() - 1));
+            double length = 0;
+            for (int i = 1; i < path.size(); i++) {
+                double best = Double.POSITIVE_INFINITY;
+                for (int a = graph.firstArc(path.get(i - 1)); a < graph.endArc(path.get(i - 1)); a++) {
+                    if (graph.arcTarget(a) == path.get(i)) {
+                        best = graph.arcWeight(a);
+                    }
+                }
+                length += best;
+            }
+            assertEquals(search.cost(), length, 1e-9, "target " + target);
+        }
+    }
+}
@@ -4,11 +4,14 @@ import com.marko.routing_backend.dto.EdgeDto;
 import com.marko.routing_backend.dto.GraphOperationRequest;
 import com.marko.routing_backend.dto.NodeDto;
 import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.graph.Components;
+import com.marko.routing_backend.graph.CsrGraph;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -43,6 +46,34 @@ public class GraphServiceTest {
         assertFalse(graphService.isConnected(edges, 4), "Should detect disconnected graph");
     }
 
+    @Test
+    void whenGraphHasSeveralComponents_thenReportIdsAndSizes() {
+        List<EdgeDto> edges = Arrays.asList(
+            new EdgeDto(0, 1, 5),
+            new EdgeDto(3, 2, 4),
+            new EdgeDto(1, 4, 1)
+        );
+
+        Components components = graphService.components(CsrGraph.undirected(6, edges));
+
+        assertEquals(3, components.count());
+        assertEquals(0, components.componentOf(4));
+        assertEquals(3, components.size(components.componentOf(0)));
+        assertEquals(2, components.size(components.componentOf(2)));
+        assertTrue(components.connected(2, 3));
+        assertFalse(components.connected(0, 5));
+    }
+
+    @Test
+    void whenGraphIsLongPath_thenConnectivityDoesNotOverflowStack() {
+        List<EdgeDto> edges = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            edges.add(new EdgeDto(i, i + 1, 1));
+        }
+
+        assertTrue(graphService.isConnected(edges, 200_001));
+    }
+
     @Test
     void whenGraphValidationFails_thenThrowException() {
         // Prepare invalid request
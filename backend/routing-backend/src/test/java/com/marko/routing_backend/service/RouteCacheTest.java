@@ -0,0 +1,65 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.NodeDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RouteCacheTest {
+
+    private static GraphOperationRequest request(double cost) {
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(Arrays.asList(
+            new NodeDto(0, 0, 0, "N0"),
+            new NodeDto(1, 100, 100, "N1")
+        ));
+        request.setEdges(new ArrayList<>(Arrays.asList(new EdgeDto(0, 1, cost))));
+        request.setStartNode(0);
+        request.setEndNode(1);
+        return request;
+    }
+
+    @Test
+    void whenGraphContentMatches_thenKeysMatch() {
+        assertEquals(RouteCache.key("dijkstra", request(5)), RouteCache.key("dijkstra", request(5)));
+        assertNotEquals(RouteCache.key("dijkstra", request(5)), RouteCache.key("dijkstra", request(6)));
+        assertNotEquals(RouteCache.key("dijkstra", request(5)), RouteCache.key("bellman-ford", request(5)));
+
+        GraphOperationRequest delta = request(5);
+        delta.setTraceFormat("delta");
+        assertNotEquals(RouteCache.key("dijkstra", request(5)), RouteCache.key("dijkstra", delta));
+    }
+
+    @Test
+    void whenRouteKeyIsComputed_thenGraphKeyReusesItsFingerprint() {
+        GraphOperationRequest request = request(5);
+        String key = RouteCache.key("dijkstra", request);
+        String graphKey = request.getGraphFingerprint();
+        assertNotNull(graphKey);
+
+        // Edits after the first hash are not seen: the fingerprint is computed once per request
+        request.getEdges().add(new EdgeDto(1, 0, 2));
+        assertSame(graphKey, RouteCache.graphKey(request));
+        assertEquals(key, RouteCache.key("dijkstra", request));
+        assertNotEquals(graphKey, RouteCache.graphKey(request(6)));
+    }
+
+    @Test
+    void whenSameRequestRepeated_thenLoaderRunsOnce() {
+        RouteCache cache = new RouteCache(new ConcurrentMapCacheManager(RouteCache.CACHE_NAME), null);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("dijkstra", request(5), loads::incrementAndGet);
+        cache.get("dijkstra", request(5), loads::incrementAndGet);
+        cache.get("dijkstra", request(7), loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,128 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.RoutingProperties;
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.GraphOperationResponse;
+import com.marko.routing_backend.dto.NodeDto;
+import com.marko.routing_backend.exception.GraphValidationException;
+import com.marko.routing_backend.graph.BellmanFord;
+import com.marko.routing_backend.graph.CsrGraph;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchDeadlineTest {
+
+    private static SimulationService simulation(RoutingProperties properties) {
+        return new SimulationService(new GraphService(), null, properties, null,
+            new RoutingMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static GraphOperationRequest pathRequest(int n) {
+        List<NodeDto> nodes = new ArrayList<>();
+        List<EdgeDto> edges = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            nodes.add(new NodeDto(i, i, 0, null));
+            if (i > 0) {
+                edges.add(new EdgeDto(i - 1, i, 1));
+            }
+        }
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(nodes);
+        request.setEdges(edges);
+        request.setStartNode(0);
+        request.setEndNode(n - 1);
+        request.setTraceFormat("delta");
+        return request;
+    }
+
+    @Test
+    void whenTimeLimitPasses_thenDeadlineTripsAndStaysTripped() throws InterruptedException {
+        SearchDeadline deadline = new SearchDeadline(1);
+        Thread.sleep(1);
+        assertTrue(deadline.expired());
+        assertTrue(deadline.expired());
+        assertTrue(deadline.reason().contains("time limit"));
+
+        SearchDeadline unlimited = SearchDeadline.ofSeconds(0);
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(unlimited.expired());
+        }
+        assertNull(unlimited.reason());
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = BellmanFord.Mode.class, names = {"PASSES", "PARALLEL"})
+    void whenDeadlinePassesDuringLongPasses_thenBellmanFordStopsWithinAPass(BellmanFord.Mode mode) {
+        // A chain listed back to front needs one pass per node, and filler self-loops make every
+        // pass long: far fewer passes than the poll interval, but seconds of work in total
+        int chain = 1_000;
+        int filler = 400_000;
+        int[] start = new int[chain - 1 + filler];
+        int[] end = new int[start.length];
+        double[] cost = new double[start.length];
+        for (int i = 0; i < chain - 1; i++) {
+            start[i] = chain - 2 - i;
+            end[i] = chain - 1 - i;
+            cost[i] = 1;
+        }
+        Arrays.fill(cost, chain - 1, cost.length, 1);
+        CsrGraph graph = CsrGraph.fromColumns(chain, start, end, cost);
+        SearchDeadline deadline = new SearchDeadline(TimeUnit.MILLISECONDS.toNanos(50));
+
+        BellmanFord.Result result = BellmanFord.run(graph, 0, mode, ForkJoinPool.commonPool(), deadline::checkNow);
+
+        assertTrue(result.isStopped());
+        assertTrue(result.passes() < chain - 1, "stopped after " + result.passes() + " passes");
+        assertTrue(deadline.reason().contains("time limit"));
+    }
+
+    @Test
+    void whenRunningThreadIsInterrupted_thenSimulationReturnsPartialTrace() {
+        Thread.currentThread().interrupt();
+        GraphOperationResponse bellmanFord;
+        GraphOperationResponse dijkstra;
+        try {
+            bellmanFord = simulation(new RoutingProperties()).simulateBellmanFord(pathRequest(50));
+            dijkstra = simulation(new RoutingProperties()).simulateDijkstra(pathRequest(50));
+        } finally {
+            Thread.interrupted();
+        }
+
+        assertFalse(bellmanFord.isSuccess());
+        assertEquals(Boolean.TRUE, bellmanFord.getPartial());
+        assertEquals("Search was cancelled", bellmanFord.getError());
+        // Only the initial state was recorded before the first cancellation check
+        assertEquals(1, bellmanFord.getSteps().size());
+        assertEquals(0.0, bellmanFord.getFinalDistances().get(0));
+
+        assertEquals(Boolean.TRUE, dijkstra.getPartial());
+        assertEquals(0, dijkstra.getSettledNodes());
+        assertTrue(dijkstra.getSteps().isEmpty());
+    }
+
+    @Test
+    void whenGraphExceedsSizeLimits_thenRejectedBeforeBuilding() {
+        RoutingProperties properties = new RoutingProperties();
+        properties.setMaxNodes(10);
+        GraphValidationException error = assertThrows(GraphValidationException.class,
+            () -> simulation(properties).simulateDijkstra(pathRequest(11)));
+        assertEquals("nodes", error.getField());
+
+        properties.setMaxNodes(100);
+        properties.setMaxEdges(5);
+        error = assertThrows(GraphValidationException.class,
+            () -> simulation(properties).simulateBellmanFord(pathRequest(11)));
+        assertEquals("edges", error.getField());
+    }
+}
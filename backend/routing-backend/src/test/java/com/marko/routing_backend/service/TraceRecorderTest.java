@@ -0,0 +1,76 @@
+package com.marko.routing_backend.service;
+
+import com.marko.routing_backend.config.RoutingProperties;
+import com.marko.routing_backend.dto.EdgeDto;
+import com.marko.routing_backend.dto.GraphOperationRequest;
+import com.marko.routing_backend.dto.NodeDto;
+import com.marko.routing_backend.dto.SimulationStep;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TraceRecorderTest {
+
+    private static List<SimulationStep> trace(String format) {
+        List<NodeDto> nodes = new ArrayList<>();
+        List<EdgeDto> edges = new ArrayList<>();
+        int side = 5;
+        for (int i = 0; i < side * side; i++) {
+            nodes.add(new NodeDto(i, i % side, i / side, null));
+            if (i % side + 1 < side) edges.add(new EdgeDto(i, i + 1, 1 + i % 3));
+            if (i + side < side * side) edges.add(new EdgeDto(i, i + side, 1 + i % 4));
+        }
+        GraphOperationRequest request = new GraphOperationRequest();
+        request.setNodes(nodes);
+        request.setEdges(edges);
+        request.setStartNode(0);
+        request.setEndNode(side * side - 1);
+        request.setTraceFormat(format);
+        request.setKeyframeInterval(4);
+        SimulationService simulation = new SimulationService(new GraphService(), null, new RoutingProperties(), null,
+            new RoutingMetrics(new SimpleMeterRegistry()));
+        return simulation.simulateDijkstra(request).getSteps();
+    }
+
+    @Test
+    void whenReplayStartsAtMiddleKeyframe_thenStateMatchesFullTrace() {
+        List<SimulationStep> full = trace("full");
+        List<SimulationStep> delta = trace("delta");
+        assertEquals(full.size(), delta.size());
+
+        int from = 8;
+        assertTrue(from < delta.size() - 1);
+        assertEquals(Boolean.TRUE, delta.get(from).getKeyframe());
+
+        // Nothing before the keyframe is read
+        Map<Integer, Double> distances = new HashMap<>(delta.get(from).getDistances());
+        Map<Integer, Integer> predecessors = new HashMap<>(delta.get(from).getPredecessors());
+        int[] visited = delta.get(from).getVisitedEdgeIndices();
+        for (int i = from; i < delta.size(); i++) {
+            SimulationStep step = delta.get(i);
+            if (i > from) {
+                if (Boolean.TRUE.equals(step.getKeyframe())) {
+                    distances.clear();
+                    predecessors.clear();
+                    visited = new int[0];
+                }
+                distances.putAll(step.getDistances());
+                predecessors.putAll(step.getPredecessors());
+                int[] added = step.getVisitedEdgeIndices();
+                int length = visited.length;
+                visited = Arrays.copyOf(visited, length + added.length);
+                System.arraycopy(added, 0, visited, length, added.length);
+            }
+            assertEquals(full.get(i).getDistances(), distances, "distances at step " + i);
+            assertEquals(full.get(i).getPredecessors(), predecessors, "predecessors at step " + i);
+            assertArrayEquals(full.get(i).getVisitedEdgeIndices(), visited, "visited edges at step " + i);
+        }
+    }
+}